@@ -0,0 +1,155 @@
+package com.screenengine.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection pools for metadata and screen data.
+ * The metadata pool (spring.datasource) serves authentication, roles and screen
+ * metadata. Screen data queries run against the ERP database through
+ * screen-engine.data-datasource: when it is enabled it gets a pool of its own,
+ * so slow data queries can exhaust only their own connections. When disabled
+ * the data beans are aliases of the metadata ones.
+ * The primary DataSource hands out connections lazily: a read-only transaction
+ * gets one from {@link ReadReplicaRoutingDataSource} when replicas are enabled,
+ * everything else from the metadata pool.
+ * Declaring a second pool switches off Spring Boot's single-datasource
+ * auto-configuration, so the metadata beans are declared here as primary.
+ */
+@Slf4j
+@Configuration
+public class DataSourceConfig {
+
+    public static final String METADATA_DATA_SOURCE = "metadataDataSource";
+    public static final String REPLICA_DATA_SOURCE = "readReplicaDataSource";
+    public static final String DATA_DATA_SOURCE = "screenDataSource";
+    public static final String DATA_JDBC_TEMPLATE = "dataJdbcTemplate";
+    public static final String DATA_TRANSACTION_MANAGER = "dataTransactionManager";
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean(METADATA_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource metadataDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Replica pools behind one routing DataSource, only when screen-engine.read-replicas.enabled=true
+     */
+    @Bean(name = REPLICA_DATA_SOURCE, destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "screen-engine.read-replicas", name = "enabled", havingValue = "true")
+    public ReadReplicaRoutingDataSource readReplicaDataSource(@Qualifier(METADATA_DATA_SOURCE) DataSource metadataDataSource,
+                                                              ScreenEngineProperties properties) {
+        ScreenEngineProperties.ReadReplicas config = properties.getReadReplicas();
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (ScreenEngineProperties.Replica replica : config.getReplicas()) {
+            ScreenEngineProperties.HikariConfig hikari = replica.getHikari();
+            if (hikari.getPoolName() == null) {
+                hikari.setPoolName("ReplicaPool-" + (pools.size() + 1));
+            }
+            pools.add(pool(replica.getUrl(), replica.getUsername(), replica.getPassword(), replica.getDriverClassName(), hikari));
+        }
+        log.info("Routing read-only transactions to {} replicas", pools.size());
+        return new ReadReplicaRoutingDataSource(metadataDataSource, pools, config);
+    }
+
+    /**
+     * Connections are fetched on first use, once the transaction's read-only flag is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(METADATA_DATA_SOURCE) DataSource metadataDataSource,
+                                 @Qualifier(REPLICA_DATA_SOURCE) ObjectProvider<DataSource> readReplicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(metadataDataSource);
+        readReplicaDataSource.ifAvailable(dataSource::setReadOnlyDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSourceTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    /**
+     * Separate pool for screen data, only when screen-engine.data-datasource.enabled=true
+     */
+    @Bean(name = DATA_DATA_SOURCE, destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "screen-engine.data-datasource", name = "enabled", havingValue = "true")
+    public HikariDataSource screenDataSource(ScreenEngineProperties properties) {
+        ScreenEngineProperties.DataDatasource config = properties.getDataDatasource();
+        ScreenEngineProperties.HikariConfig hikari = config.getHikari();
+        HikariDataSource dataSource = pool(config.getUrl(), config.getUsername(), config.getPassword(),
+                config.getDriverClassName(), hikari);
+        log.info("Screen data pool {} configured with up to {} connections", hikari.getPoolName(), hikari.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(String url, String username, String password, String driverClassName,
+                                         ScreenEngineProperties.HikariConfig hikari) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        if (driverClassName != null) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        dataSource.setPoolName(hikari.getPoolName());
+        dataSource.setMaximumPoolSize(hikari.getMaximumPoolSize());
+        dataSource.setMinimumIdle(hikari.getMinimumIdle());
+        dataSource.setConnectionTimeout(hikari.getConnectionTimeout());
+        dataSource.setValidationTimeout(hikari.getValidationTimeout());
+        dataSource.setIdleTimeout(hikari.getIdleTimeout());
+        dataSource.setMaxLifetime(hikari.getMaxLifetime());
+        dataSource.setLeakDetectionThreshold(hikari.getLeakDetectionThreshold());
+        // Data and replica pools are only read; lets the driver and database skip write bookkeeping
+        dataSource.setReadOnly(hikari.isReadOnly());
+        // Driver-level statement caching, e.g. prepareThreshold / preparedStatementCacheQueries for PostgreSQL
+        hikari.getDataSourceProperties().forEach(dataSource::addDataSourceProperty);
+        return dataSource;
+    }
+
+    /**
+     * JdbcTemplate of the screen data engine, with the configured query timeout as default
+     */
+    @Bean(DATA_JDBC_TEMPLATE)
+    public JdbcTemplate dataJdbcTemplate(@Qualifier(DATA_DATA_SOURCE) ObjectProvider<DataSource> screenDataSource,
+                                         DataSource dataSource, ScreenEngineProperties properties) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(screenDataSource.getIfAvailable(() -> dataSource));
+        jdbcTemplate.setQueryTimeout(properties.getSql().getQueryTimeout());
+        return jdbcTemplate;
+    }
+
+    @Bean(DATA_TRANSACTION_MANAGER)
+    public DataSourceTransactionManager dataTransactionManager(@Qualifier(DATA_DATA_SOURCE) ObjectProvider<DataSource> screenDataSource,
+                                                               DataSource dataSource) {
+        return new DataSourceTransactionManager(screenDataSource.getIfAvailable(() -> dataSource));
+    }
+}
@@ -0,0 +1,168 @@
+package com.screenengine.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves connections for read-only transactions from a set of replica pools.
+ * Replicas are checked every read-replicas.check-interval: a replica is used only
+ * while it answers and, when a lag query is configured, trails the primary by no
+ * more than read-replicas.max-lag seconds. Usable replicas take turns; when none
+ * is usable, or the chosen one fails to hand out a connection, the connection
+ * comes from the primary instead.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final int CHECK_TIMEOUT_SECONDS = 5;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile Replica[] usable = new Replica[0];
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                        ScreenEngineProperties.ReadReplicas config) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.lagQuery = config.getLagQuery() == null || config.getLagQuery().isBlank() ? null : config.getLagQuery();
+        this.maxLagSeconds = config.getMaxLag();
+        checkReplicas();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = choose();
+        if (replica != null) {
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException ex) {
+                markDown(replica, ex);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = choose();
+        if (replica != null) {
+            try {
+                return replica.pool.getConnection(username, password);
+            } catch (SQLException ex) {
+                markDown(replica, ex);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Probe every replica and rebuild the set of usable ones
+     */
+    @Scheduled(fixedDelayString = "${screen-engine.read-replicas.check-interval:5000}",
+            initialDelayString = "${screen-engine.read-replicas.check-interval:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasUsable = replica.usable;
+            try (Connection connection = replica.pool.getConnection()) {
+                replica.lagSeconds = lagQuery != null ? queryLag(connection) : 0;
+                replica.usable = replica.lagSeconds <= maxLagSeconds;
+                if (!replica.usable && wasUsable) {
+                    log.warn("Replica {} is {} s behind the primary, reading from the primary instead",
+                            replica.pool.getPoolName(), replica.lagSeconds);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                replica.usable = false;
+                if (wasUsable) {
+                    log.warn("Replica {} failed its health check: {}", replica.pool.getPoolName(), ex.getMessage());
+                }
+            }
+            if (replica.usable && !wasUsable) {
+                log.info("Replica {} is serving read-only transactions", replica.pool.getPoolName());
+            }
+        }
+        usable = replicas.stream().filter(replica -> replica.usable).toArray(Replica[]::new);
+    }
+
+    private double queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return 0;
+                }
+                // An unknown lag cannot be shown to be within max-lag
+                double lag = rs.getDouble(1);
+                return rs.wasNull() || Double.isNaN(lag) ? Double.POSITIVE_INFINITY : lag;
+            }
+        }
+    }
+
+    private Replica choose() {
+        Replica[] candidates = usable;
+        if (candidates.length == 0) {
+            return null;
+        }
+        return candidates[Math.floorMod(next.getAndIncrement(), candidates.length)];
+    }
+
+    /**
+     * Take a failing replica out of rotation until the next check finds it healthy
+     */
+    private void markDown(Replica replica, SQLException ex) {
+        if (replica.usable) {
+            replica.usable = false;
+            usable = replicas.stream().filter(candidate -> candidate.usable).toArray(Replica[]::new);
+            log.warn("Replica {} refused a connection, reading from the primary: {}", replica.pool.getPoolName(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            if (replica.pool.getMetricsTrackerFactory() == null && replica.pool.getMetricRegistry() == null) {
+                replica.pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            Gauge.builder("datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+                    .tag("pool", replica.pool.getPoolName())
+                    .description("Whether the replica currently serves read-only transactions")
+                    .register(registry);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("pool", replica.pool.getPoolName())
+                    .description("Replication lag measured at the last check, in seconds")
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        volatile boolean usable;
+        volatile double lagSeconds;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
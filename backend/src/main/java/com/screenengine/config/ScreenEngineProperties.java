@@ -4,7 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -17,10 +19,15 @@ import java.util.Map;
 public class ScreenEngineProperties {
 
     private DataDatasource dataDatasource = new DataDatasource();
+    private ReadReplicas readReplicas = new ReadReplicas();
     private Parameters parameters = new Parameters();
     private Sql sql = new Sql();
     private Security security = new Security();
     private Cache cache = new Cache();
+    private UserImport userImport = new UserImport();
+    private LoginActivity loginActivity = new LoginActivity();
+    private LoginAttempts loginAttempts = new LoginAttempts();
+    private RateLimit rateLimit = new RateLimit();
 
     @Data
     public static class DataDatasource {
@@ -32,12 +39,41 @@ public class ScreenEngineProperties {
         private HikariConfig hikari = new HikariConfig();
     }
 
+    @Data
+    public static class ReadReplicas {
+        private boolean enabled = false;
+        private List<Replica> replicas = new ArrayList<>();
+        private long checkInterval = 5000; // ms between replica health and lag checks
+        private long maxLag = 10; // seconds a replica may trail the primary before its reads go to the primary
+        // A standby whose WAL receiver is not streaming stopped receiving changes: report it as infinitely behind.
+        // Reading pg_stat_wal_receiver.status needs pg_read_all_stats (or pg_monitor) for the replica user.
+        private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+                + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 'Infinity'::float8 "
+                + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())::float8, 'Infinity'::float8) END"; // blank = health check only
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private HikariConfig hikari = new HikariConfig();
+    }
+
     @Data
     public static class HikariConfig {
         private String poolName;
         private int maximumPoolSize = 20;
         private int minimumIdle = 5;
         private long connectionTimeout = 30000;
+        private long validationTimeout = 5000;
+        private long idleTimeout = 600000;
+        private long maxLifetime = 1800000;
+        private long leakDetectionThreshold = 0; // ms a connection may be held before a leak warning, 0 = off
+        private boolean readOnly = true;
+        private Map<String, String> dataSourceProperties = new HashMap<>(); // passed to the JDBC driver
     }
 
     @Data
@@ -49,26 +85,15 @@ public class ScreenEngineProperties {
         private Long accountingOrgId = 1L;
         private Long accountingPeriodId = 202401L;
         private Long departmentNo = 10L;
-
-        public Map<String, Object> toMap() {
-            Map<String, Object> map = new HashMap<>();
-            map.put("FACTORY", factory);
-            map.put("FABRIKA", factory);
-            map.put("KULLANICI", user);
-            map.put("KISIID", personId);
-            map.put("ORGKODU", orgCode);
-            map.put("MUHORGID", accountingOrgId);
-            map.put("MUHORGDONEMID", accountingPeriodId);
-            map.put("BIRIMNO", departmentNo);
-            return map;
-        }
     }
 
     @Data
     public static class Sql {
         private String dialect = "POSTGRESQL";
         private int maxResults = 1000;
-        private int queryTimeout = 30;
+        private int queryTimeout = 30; // seconds
+        private int fetchSize = 500; // rows per cursor round trip when streaming screen data
+        private int pageSize = 100; // default rows per keyset page of a screen grid
         private boolean enableDebugQuery = true;
     }
 
@@ -76,12 +101,34 @@ public class ScreenEngineProperties {
     public static class Security {
         private Jwt jwt = new Jwt();
         private Cors cors = new Cors();
+        private PasswordHashing passwordHashing = new PasswordHashing();
+        private RefreshToken refreshToken = new RefreshToken();
     }
 
     @Data
     public static class Jwt {
         private String secret = "screen-engine-secret-key-change-in-production";
         private long expiration = 3600000L;
+        private boolean stateless = true;
+        private long versionRefreshInterval = 5000; // ms between polls for security versions bumped on other nodes
+        private boolean permissionsClaim = true; // embed the compiled permission bitset in issued tokens
+    }
+
+    @Data
+    public static class RefreshToken {
+        private long expiration = 2592000000L; // 30 days in milliseconds
+        private long purgeInterval = 3600000L; // milliseconds between purges of expired tokens
+        private int purgeBatchSize = 1000;
+    }
+
+    @Data
+    public static class PasswordHashing {
+        private int strength = 10; // BCrypt cost factor
+        private int threads = 0; // 0 = number of available processors
+        private int bulkThreads = 0; // threads of the separate pool for imports; 0 = half of threads, at least 1
+        private int queueCapacity = 64;
+        private long timeout = 250; // max wait for a hash in milliseconds, including queueing; a few hash times
+        private int retryAfter = 1; // seconds suggested to clients when the pool is saturated
     }
 
     @Data
@@ -94,7 +141,63 @@ public class ScreenEngineProperties {
 
     @Data
     public static class Cache {
-        private boolean enabled = false;
+        private boolean enabled = true; // principals, tokens, screen definitions and JOIN lookups
         private int ttl = 300;
+        private int principalMaxSize = 10000;
+        private int tokenMaxSize = 10000;
+        private int rejectedTokenMaxSize = 1000;
+        private int rejectedTokenTtl = 30;
+        private long catalogRefreshInterval = 60000; // milliseconds between role catalog change checks
+        private long screenCheckInterval = 5000; // milliseconds a cached screen is served before its version is re-checked
+        private int lookupMaxSize = 50000; // cached code-to-name entries of JOIN columns, all dimensions together
+        private int lookupTtl = 600; // seconds
+    }
+
+    @Data
+    public static class UserImport {
+        private int batchSize = 500;
+        private int maxReportedErrors = 1000;
+    }
+
+    @Data
+    public static class LoginActivity {
+        private long flushInterval = 1000; // milliseconds between write-behind flushes
+        private int batchSize = 500; // pending users that trigger an early flush
+    }
+
+    @Data
+    public static class LoginAttempts {
+        private boolean enabled = true;
+        private int window = 900; // sliding window in seconds
+        private int buckets = 15;
+        private int maxUserFailures = 5; // failures per username within the window before blocking
+        private int maxIpFailures = 50; // failures per client IP within the window before blocking
+        private int lockThreshold = 0; // failed_attempts that set t_user.locked, 0 = never lock
+        private int maxTrackedKeys = 100000;
+    }
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        private int idleEviction = 600; // seconds a full bucket is kept
+        private int maxBuckets = 100000;
+        private List<RateLimitGroup> groups = new ArrayList<>(); // first matching group wins
+    }
+
+    @Data
+    public static class RateLimitGroup {
+        private String name;
+        private List<String> patterns = new ArrayList<>(); // Ant-style request paths
+        private int capacity = 60; // burst size
+        private double refillPerSecond = 1.0;
+        private RateLimitKey key = RateLimitKey.IP;
+        private int ipCapacity = 0; // USERNAME groups: extra per-address bucket, 0 = none
+        private double ipRefillPerSecond = 1.0;
+    }
+
+    public enum RateLimitKey {
+        IP,       // client address
+        USER,     // authenticated user ID, client address for anonymous requests
+        USERNAME  // "username" of the JSON request body, client address when absent
     }
 }
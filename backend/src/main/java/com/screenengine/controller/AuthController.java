@@ -3,11 +3,17 @@ package com.screenengine.controller;
 import com.screenengine.dto.ApiResponse;
 import com.screenengine.dto.AuthResponse;
 import com.screenengine.dto.LoginRequest;
+import com.screenengine.dto.RefreshTokenRequest;
 import com.screenengine.dto.RegisterRequest;
+import com.screenengine.security.InvalidRefreshTokenException;
+import com.screenengine.security.LoginBlockedException;
+import com.screenengine.security.PasswordHashingBusyException;
 import com.screenengine.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,12 +33,20 @@ public class AuthController {
      * User login endpoint
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<ApiResponse<AuthResponse>> login(
+            @Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
         log.info("Login request received for username: {}", loginRequest.getUsername());
 
         try {
-            AuthResponse authResponse = authService.login(loginRequest);
+            AuthResponse authResponse = authService.login(loginRequest, request.getRemoteAddr());
             return ResponseEntity.ok(ApiResponse.success(authResponse, "Login successful"));
+        } catch (PasswordHashingBusyException e) {
+            return serverBusy(e);
+        } catch (LoginBlockedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ApiResponse.error("TOO_MANY_ATTEMPTS", "Too many failed login attempts, please try again later"));
         } catch (Exception e) {
             log.error("Login failed for username: {}", loginRequest.getUsername(), e);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -51,6 +65,8 @@ public class AuthController {
             AuthResponse authResponse = authService.register(registerRequest);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success(authResponse, "Registration successful"));
+        } catch (PasswordHashingBusyException e) {
+            return serverBusy(e);
         } catch (RuntimeException e) {
             log.error("Registration failed for username: {}", registerRequest.getUsername(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -61,4 +77,38 @@ public class AuthController {
                     .body(ApiResponse.error("REGISTRATION_FAILED", "An error occurred during registration"));
         }
     }
+
+    /**
+     * Exchange a refresh token for a new access token; the refresh token is rotated
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            AuthResponse authResponse = authService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(ApiResponse.success(authResponse, "Token refreshed"));
+        } catch (InvalidRefreshTokenException e) {
+            log.warn("Refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("INVALID_REFRESH_TOKEN", "Refresh token is invalid or expired"));
+        }
+    }
+
+    /**
+     * Logout endpoint, revokes the refresh token and every token rotated from the same login
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.ok(ApiResponse.success(null, "Logout successful"));
+    }
+
+    /**
+     * 503 with Retry-After when password hashing is saturated, so clients back off instead of retrying at once
+     */
+    private static ResponseEntity<ApiResponse<AuthResponse>> serverBusy(PasswordHashingBusyException e) {
+        log.warn("Rejecting auth request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error("SERVER_BUSY", "Too many authentication requests, please retry shortly"));
+    }
 }
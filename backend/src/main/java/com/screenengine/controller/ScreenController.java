@@ -0,0 +1,50 @@
+package com.screenengine.controller;
+
+import com.screenengine.security.UserPrincipal;
+import com.screenengine.service.ScreenDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+/**
+ * REST controller for screen data.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/screens")
+@RequiredArgsConstructor
+public class ScreenController {
+
+    private final ScreenDataService screenDataService;
+
+    /**
+     * Query the data of a screen - requires SCREEN_READ
+     * Request parameters named after query panel columns (db_kolon) are the filters;
+     * sort=col,-col orders the rows. Passing size and then the returned nextCursor
+     * pages through the result. Rows are streamed from the database cursor straight to the response.
+     */
+    @GetMapping("/{ekranKod}/data")
+    @PreAuthorize("hasPermission(null, 'SCREEN_READ')")
+    public ResponseEntity<StreamingResponseBody> getScreenData(
+            @PathVariable String ekranKod,
+            @RequestParam Map<String, String> filters,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        log.info("Querying screen {} with filters {}", ekranKod, filters.keySet());
+        ScreenDataService.ScreenQuery query = screenDataService.prepare(ekranKod, filters, currentUser);
+        StreamingResponseBody body = out -> screenDataService.stream(query, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -1,18 +1,30 @@
 package com.screenengine.controller;
 
 import com.screenengine.dto.ApiResponse;
+import com.screenengine.dto.CursorPage;
+import com.screenengine.dto.PaginationInfo;
 import com.screenengine.dto.UpdateUserRequest;
 import com.screenengine.dto.UserDTO;
+import com.screenengine.dto.UserFileFormat;
+import com.screenengine.dto.UserImportResult;
+import com.screenengine.dto.UserSearchCriteria;
 import com.screenengine.security.UserPrincipal;
+import com.screenengine.service.UserExportService;
+import com.screenengine.service.UserImportService;
 import com.screenengine.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +39,8 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
 
     /**
      * Get current authenticated user info
@@ -46,21 +60,57 @@ public class UserController {
     }
 
     /**
-     * Get all users - Admin only
+     * Get users one keyset page at a time - requires USER_READ
+     * Filters: status, fabrikaKod, role, q (username/email prefix).
+     * Pass the returned nextCursor to fetch the following page.
      */
     @GetMapping
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers() {
-        log.info("Fetching all users");
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(ApiResponse.success(users, "Users retrieved successfully"));
+    @PreAuthorize("hasPermission(null, 'USER_READ')")
+    public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers(@Valid UserSearchCriteria criteria) {
+        log.info("Fetching users page: {}", criteria);
+        CursorPage<UserDTO> page = userService.searchUsers(criteria);
+        ApiResponse<List<UserDTO>> response = ApiResponse.success(page.getItems(), PaginationInfo.of(page, criteria.getSize()));
+        response.setMessage("Users retrieved successfully");
+        return ResponseEntity.ok(response);
     }
 
     /**
-     * Get user by ID - Admin only
+     * Export all users as NDJSON or CSV - requires USER_READ and DATA_EXPORT
+     * Rows are streamed from the database cursor straight to the response.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasPermission(null, 'USER_READ') and hasPermission(null, 'DATA_EXPORT')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "NDJSON") UserFileFormat format) {
+        log.info("Exporting users as {}", format);
+        StreamingResponseBody body = out -> userExportService.export(format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Import users from CSV, NDJSON or a JSON array - requires USER_CREATE and DATA_IMPORT
+     * The format is picked from the request Content-Type. Rows are streamed
+     * and inserted in batches; invalid rows are reported without failing the import.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasPermission(null, 'USER_CREATE') and hasPermission(null, 'DATA_IMPORT')")
+    public ResponseEntity<ApiResponse<UserImportResult>> importUsers(
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) throws IOException {
+        UserFileFormat format = UserFileFormat.fromContentType(request.getContentType());
+        log.info("Importing users as {} by {}", format, currentUser.getUsername());
+        UserImportResult result = userImportService.importUsers(request.getInputStream(), format, currentUser.getUsername());
+        return ResponseEntity.ok(ApiResponse.success(result, "Imported " + result.getImported() + " of " + result.getTotal() + " users"));
+    }
+
+    /**
+     * Get user by ID - requires USER_READ
      */
     @GetMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("hasPermission(null, 'USER_READ')")
     public ResponseEntity<ApiResponse<UserDTO>> getUserById(@PathVariable Long userId) {
         log.info("Fetching user with ID: {}", userId);
         UserDTO user = userService.getUserById(userId);
@@ -68,10 +118,10 @@ public class UserController {
     }
 
     /**
-     * Update user - Admin only
+     * Update user - requires USER_UPDATE
      */
     @PutMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("hasPermission(null, 'USER_UPDATE')")
     public ResponseEntity<ApiResponse<UserDTO>> updateUser(
             @PathVariable Long userId,
             @Valid @RequestBody UpdateUserRequest request) {
@@ -81,10 +131,10 @@ public class UserController {
     }
 
     /**
-     * Delete user (soft delete) - Admin only
+     * Delete user (soft delete) - requires USER_DELETE
      */
     @DeleteMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("hasPermission(null, 'USER_DELETE')")
     public ResponseEntity<ApiResponse<Void>> deleteUser(@PathVariable Long userId) {
         log.info("Deleting user with ID: {}", userId);
         userService.deleteUser(userId);
@@ -92,10 +142,10 @@ public class UserController {
     }
 
     /**
-     * Toggle user active status - Admin only
+     * Toggle user active status - requires USER_UPDATE
      */
     @PatchMapping("/{userId}/toggle-status")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("hasPermission(null, 'USER_UPDATE')")
     public ResponseEntity<ApiResponse<UserDTO>> toggleUserStatus(@PathVariable Long userId) {
         log.info("Toggling status for user with ID: {}", userId);
         UserDTO updatedUser = userService.toggleUserStatus(userId);
@@ -19,6 +19,8 @@ public class AuthResponse {
     private String token;
     private String tokenType = "Bearer";
     private Long expiresIn;
+    private String refreshToken;
+    private Long refreshExpiresIn;
     private UserInfo user;
 
     @Data
@@ -1,5 +1,6 @@
 package com.screenengine.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,17 +8,22 @@ import lombok.NoArgsConstructor;
 
 /**
  * Pagination information for paginated API responses.
+ * Offset pages fill page/totalPages; cursor pages fill nextCursor/hasMore
+ * and leave total empty when counting was skipped.
  */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginationInfo {
 
-    private int page;
+    private Integer page;
     private int pageSize;
-    private long total;
-    private int totalPages;
+    private Long total;
+    private Integer totalPages;
+    private String nextCursor;
+    private Boolean hasMore;
 
     /**
      * Calculate total pages from total records and page size
@@ -31,4 +37,16 @@ public class PaginationInfo {
                 .totalPages(totalPages)
                 .build();
     }
+
+    /**
+     * Create pagination info for a cursor (keyset) page
+     */
+    public static PaginationInfo of(CursorPage<?> page, int pageSize) {
+        return PaginationInfo.builder()
+                .pageSize(pageSize)
+                .total(page.getTotal())
+                .nextCursor(page.getNextCursor())
+                .hasMore(page.isHasMore())
+                .build();
+    }
 }
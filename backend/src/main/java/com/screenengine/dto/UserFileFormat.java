@@ -0,0 +1,29 @@
+package com.screenengine.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * Supported file formats for streaming user export and import.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum UserFileFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    /**
+     * Resolve the format of an uploaded body; JSON arrays are read like NDJSON
+     */
+    public static UserFileFormat fromContentType(String contentType) {
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV.contentType))) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
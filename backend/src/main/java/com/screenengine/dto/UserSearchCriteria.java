@@ -0,0 +1,42 @@
+package com.screenengine.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filter, sort and cursor parameters for listing users.
+ */
+@Data
+@NoArgsConstructor
+public class UserSearchCriteria {
+
+    private String status; // ACTIVE or INACTIVE
+
+    private Long fabrikaKod;
+
+    private String role; // USER, ADMIN or ROLE_ADMIN
+
+    private String q; // username or email prefix
+
+    private SortKey sort = SortKey.USER_ID;
+
+    private boolean descending = false;
+
+    @Min(value = 1, message = "Page size must be at least 1")
+    @Max(value = 500, message = "Page size must not exceed 500")
+    private int size = 50;
+
+    private String cursor;
+
+    private boolean skipTotal = false;
+
+    /**
+     * Sort keys backed by a unique index, so they can drive keyset pagination
+     */
+    public enum SortKey {
+        USER_ID,
+        USERNAME
+    }
+}
@@ -0,0 +1,34 @@
+package com.screenengine.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One option of a coded (combo box) column.
+ *
+ * @param code  stored value
+ * @param label display name
+ */
+public record CodedValue(String code, String label) {
+
+    /**
+     * Parse kodlu_alan text such as "A=Active;P=Passive;;".
+     * Empty entries are skipped; an entry without '=' uses the code as its label.
+     */
+    public static List<CodedValue> parseList(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<CodedValue> values = new ArrayList<>();
+        for (String entry : text.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            String code = (separator < 0 ? entry : entry.substring(0, separator)).trim();
+            String label = separator < 0 ? code : entry.substring(separator + 1).trim();
+            values.add(new CodedValue(code, label));
+        }
+        return List.copyOf(values);
+    }
+}
@@ -0,0 +1,34 @@
+package com.screenengine.model;
+
+import java.util.Locale;
+
+/**
+ * Column types of t_kul_ekran_tablo_kolon.tipi.
+ */
+public enum ColumnType {
+
+    STR,
+    LONG,
+    INT,
+    NUMBER,
+    BIG,
+    DATE,
+    BOOL,
+    COMBO,
+    JOIN,
+    PK;
+
+    /**
+     * Parse a stored type code, ignoring case and surrounding blanks
+     */
+    public static ColumnType of(String code) {
+        if (code == null || code.isBlank()) {
+            throw new IllegalArgumentException("Column type is missing");
+        }
+        try {
+            return valueOf(code.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown column type: " + code);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.screenengine.model;
+
+import com.screenengine.sql.SqlCondition;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable column definition from t_kul_ekran_tablo_kolon.
+ */
+@Value
+@Builder
+public class ScreenColumn {
+
+    Long kolonId;
+    String kolonAd;
+    String dbKolon;
+    ColumnType tipi;
+    int uzunluk;
+    int uzunlukSkala;
+    int tabloGenislik;
+    boolean zorunlu;
+    boolean gizli;
+    int panel;
+    int siralama;
+    List<CodedValue> kodluAlan;
+    String standartDeger;
+    String joinTablo;
+    String joinTabloDbKod;
+    String joinTabloDbAd;
+    String joinDbKolon;
+    String joinTipi;
+    String ozellikPanel1;     // Query logic: AND/OR
+    String ozellikPanel2;     // Query operator: =, LIKE, <, >, IN
+    String ozellikPanel3;     // Auto-query flag
+    String ozellikKolon1;     // Default value expression
+    String ozellikKolon2;     // JOIN WHERE condition
+    SqlCondition joinCondition; // ozellik_kolon2 with its placeholders resolved, null when none
+
+    /**
+     * Check if the column is shown in the query panel
+     */
+    public boolean isInQueryPanel() {
+        return panel == 1 || panel == 2;
+    }
+
+    /**
+     * Check if the column is shown in the result table
+     */
+    public boolean isInTable() {
+        return panel == 0 || panel == 1;
+    }
+}
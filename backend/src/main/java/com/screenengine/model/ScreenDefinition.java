@@ -0,0 +1,63 @@
+package com.screenengine.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable screen definition compiled from t_kul_ekran and its tables and columns.
+ * Instances are cached and shared between requests.
+ */
+@Value
+@Builder
+public class ScreenDefinition {
+
+    Long ekranId;
+    String ekranKod;
+    String ekranAd;
+    String ekranTip;
+    String altsistem;
+    Long fabrikaKod;
+    boolean active;
+    String ozellik1;          // CRUD permissions
+    String ozellik2;          // Query panel layout
+    String ozellik3;          // Query panel columns
+    List<ScreenTable> tables;
+    List<ScreenGrant> grants;  // t_kul_ekran_yetki rows, empty when the screen is not restricted to roles
+
+    /**
+     * Change marker of the metadata rows this definition was built from
+     */
+    String version;
+
+    /**
+     * Check whether a user with the given role codes and factory may use the screen.
+     * A screen bound to a factory is only available in that factory; when the screen
+     * has grants, one of the user's roles must be granted for the user's factory.
+     */
+    public boolean isAccessibleBy(Collection<String> roleCodes, Long userFabrikaKod) {
+        if (fabrikaKod != null && !fabrikaKod.equals(userFabrikaKod)) {
+            return false;
+        }
+        if (grants.isEmpty()) {
+            return true;
+        }
+        for (ScreenGrant grant : grants) {
+            for (String roleCode : roleCodes) {
+                if (grant.covers(roleCode, userFabrikaKod)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * First table by siralama, the one a table screen queries
+     */
+    public ScreenTable getMainTable() {
+        return tables.isEmpty() ? null : tables.get(0);
+    }
+}
@@ -0,0 +1,27 @@
+package com.screenengine.model;
+
+import java.util.Locale;
+
+/**
+ * One row of t_kul_ekran_yetki: a role allowed to use a screen, optionally only in one factory.
+ *
+ * @param roleCode   role code with the ROLE_ prefix, upper case
+ * @param fabrikaKod factory the grant is limited to, null for all factories
+ */
+public record ScreenGrant(String roleCode, Long fabrikaKod) {
+
+    /**
+     * Create a grant from a stored rol value, which may omit the ROLE_ prefix
+     */
+    public static ScreenGrant of(String rol, Long fabrikaKod) {
+        String role = rol.trim().toUpperCase(Locale.ROOT);
+        return new ScreenGrant(role.startsWith("ROLE_") ? role : "ROLE_" + role, fabrikaKod);
+    }
+
+    /**
+     * Check whether the grant covers a user with the given role in the given factory
+     */
+    public boolean covers(String userRoleCode, Long userFabrikaKod) {
+        return roleCode.equals(userRoleCode) && (fabrikaKod == null || fabrikaKod.equals(userFabrikaKod));
+    }
+}
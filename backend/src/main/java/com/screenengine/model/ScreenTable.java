@@ -0,0 +1,39 @@
+package com.screenengine.model;
+
+import com.screenengine.sql.SqlCondition;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable table definition from t_kul_ekran_tablo, with its columns ordered by siralama.
+ */
+@Value
+@Builder
+public class ScreenTable {
+
+    Long tabloId;
+    String tabloAd;
+    String dbTablo;
+    String tabloIdKolon;
+    TableType tipi;
+    int siralama;
+    String whereKosul;
+    SqlCondition whereCondition;  // where_kosul with its placeholders resolved, null when none
+    String ozellikSorgu1;
+    String ozellikSorgu2;
+    List<ScreenColumn> columns;
+
+    /**
+     * Find a column by its database column name
+     */
+    public ScreenColumn findColumn(String dbKolon) {
+        for (ScreenColumn column : columns) {
+            if (column.getDbKolon().equalsIgnoreCase(dbKolon)) {
+                return column;
+            }
+        }
+        return null;
+    }
+}
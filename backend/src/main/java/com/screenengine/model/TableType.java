@@ -0,0 +1,38 @@
+package com.screenengine.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Table types of t_kul_ekran_tablo.tipi.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TableType {
+
+    STANDARD("T"),
+    COMPLEX("C"),
+    TREE("TR"),
+    MASTER("MS"),
+    SLAVE("SM");
+
+    private final String code;
+
+    /**
+     * Parse a stored type code; a missing code means a standard table
+     */
+    public static TableType of(String code) {
+        if (code == null || code.isBlank()) {
+            return STANDARD;
+        }
+        String trimmed = code.trim().toUpperCase(Locale.ROOT);
+        for (TableType type : values()) {
+            if (type.code.equals(trimmed)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown table type: " + code);
+    }
+}
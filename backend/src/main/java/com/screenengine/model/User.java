@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
@@ -73,6 +74,13 @@ public class User {
     @Column("updated_by")
     private String updatedBy;
 
+    /**
+     * Only written by SecurityVersionRegistry.bump, so saving a user never lowers it
+     */
+    @ReadOnlyProperty
+    @Column("security_version")
+    private Integer securityVersion;
+
     /**
      * User roles (not persisted directly, loaded separately)
      */
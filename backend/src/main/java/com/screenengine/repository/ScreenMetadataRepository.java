@@ -0,0 +1,229 @@
+package com.screenengine.repository;
+
+import com.screenengine.model.CodedValue;
+import com.screenengine.model.ColumnType;
+import com.screenengine.model.ScreenColumn;
+import com.screenengine.model.ScreenDefinition;
+import com.screenengine.model.ScreenGrant;
+import com.screenengine.model.ScreenTable;
+import com.screenengine.model.TableType;
+import com.screenengine.sql.SqlCondition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loads screen metadata from t_kul_ekran, t_kul_ekran_tablo and t_kul_ekran_tablo_kolon.
+ * A screen with all of its tables and columns is read in one joined query and
+ * compiled into an immutable {@link ScreenDefinition}, together with its role
+ * grants from t_kul_ekran_yetki. The version of a screen combines the newest
+ * updated_at with the table, column and grant counts, so edits, inserts and
+ * deletes all change it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ScreenMetadataRepository {
+
+    private static final String SCREEN_WITH_COLUMNS = """
+        SELECT e.ekran_id, e.ekran_kod, e.ekran_ad, e.ekran_tip, e.altsistem, e.fabrika_kod, e.etkgst,
+               e.ozellik_1, e.ozellik_2, e.ozellik_3, e.updated_at AS ekran_updated_at,
+               t.tablo_id, t.tablo_ad, t.db_tablo, t.tablo_id_kolon, t.tipi AS tablo_tipi, t.siralama AS tablo_siralama,
+               t.where_kosul, t.ozellik_sorgu1, t.ozellik_sorgu2, t.updated_at AS tablo_updated_at,
+               k.kolon_id, k.kolon_ad, k.db_kolon, k.tipi AS kolon_tipi, k.uzunluk, k.uzunluk_skala, k.tablo_genislik,
+               k.zorunlu, k.gizli, k.panel, k.siralama AS kolon_siralama, k.kodlu_alan, k.standart_deger,
+               k.join_tablo, k.join_tablo_db_kod, k.join_tablo_db_ad, k.join_db_kolon, k.join_tipi,
+               k.ozellik_panel1, k.ozellik_panel2, k.ozellik_panel3, k.ozellik_kolon1, k.ozellik_kolon2,
+               k.updated_at AS kolon_updated_at
+        FROM t_kul_ekran e
+        LEFT JOIN t_kul_ekran_tablo t ON t.ekran_id = e.ekran_id
+        LEFT JOIN t_kul_ekran_tablo_kolon k ON k.tablo_id = t.tablo_id
+        WHERE e.ekran_kod = ?
+        ORDER BY t.siralama, t.tablo_id, k.siralama, k.kolon_id
+        """;
+
+    private static final String SCREEN_GRANTS = """
+        SELECT y.rol, y.fabrika_kod, y.updated_at
+        FROM t_kul_ekran_yetki y
+        INNER JOIN t_kul_ekran e ON e.ekran_id = y.ekran_id
+        WHERE e.ekran_kod = ?
+        ORDER BY y.yetki_id
+        """;
+
+    private static final String SCREEN_VERSION = """
+        SELECT GREATEST(e.updated_at, MAX(t.updated_at), MAX(k.updated_at),
+                        (SELECT MAX(y.updated_at) FROM t_kul_ekran_yetki y WHERE y.ekran_id = e.ekran_id)) AS updated_at,
+               COUNT(DISTINCT t.tablo_id) AS table_count, COUNT(k.kolon_id) AS column_count,
+               (SELECT COUNT(*) FROM t_kul_ekran_yetki y WHERE y.ekran_id = e.ekran_id) AS grant_count
+        FROM t_kul_ekran e
+        LEFT JOIN t_kul_ekran_tablo t ON t.ekran_id = e.ekran_id
+        LEFT JOIN t_kul_ekran_tablo_kolon k ON k.tablo_id = t.tablo_id
+        WHERE e.ekran_kod = ?
+        GROUP BY e.ekran_id, e.updated_at
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Load a screen with its tables and columns
+     */
+    public Optional<ScreenDefinition> findByEkranKod(String ekranKod) {
+        List<ScreenGrant> grants = new ArrayList<>();
+        LocalDateTime[] grantsUpdatedAt = {null};
+        jdbcTemplate.query(SCREEN_GRANTS, (RowCallbackHandler) rs -> {
+            grants.add(ScreenGrant.of(rs.getString("rol"), rs.getObject("fabrika_kod", Long.class)));
+            grantsUpdatedAt[0] = latest(grantsUpdatedAt[0], rs.getObject("updated_at", LocalDateTime.class));
+        }, ekranKod);
+
+        return Optional.ofNullable(jdbcTemplate.query(SCREEN_WITH_COLUMNS,
+                (ResultSetExtractor<ScreenDefinition>) rs -> extractScreen(rs, List.copyOf(grants), grantsUpdatedAt[0]),
+                ekranKod));
+    }
+
+    /**
+     * Current version of a screen's metadata, without loading it
+     */
+    public Optional<String> findVersion(String ekranKod) {
+        List<String> versions = jdbcTemplate.query(SCREEN_VERSION, (rs, rowNum) -> version(
+                rs.getObject("updated_at", LocalDateTime.class),
+                rs.getInt("table_count"),
+                rs.getInt("column_count"),
+                rs.getInt("grant_count")), ekranKod);
+        return versions.stream().findFirst();
+    }
+
+    private ScreenDefinition extractScreen(ResultSet rs, List<ScreenGrant> grants, LocalDateTime grantsUpdatedAt)
+            throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+
+        ScreenDefinition.ScreenDefinitionBuilder screen = ScreenDefinition.builder()
+                .ekranId(rs.getLong("ekran_id"))
+                .ekranKod(rs.getString("ekran_kod"))
+                .ekranAd(rs.getString("ekran_ad"))
+                .ekranTip(rs.getString("ekran_tip"))
+                .altsistem(rs.getString("altsistem"))
+                .fabrikaKod(rs.getObject("fabrika_kod", Long.class))
+                .active(rs.getInt("etkgst") == 1)
+                .ozellik1(rs.getString("ozellik_1"))
+                .ozellik2(rs.getString("ozellik_2"))
+                .ozellik3(rs.getString("ozellik_3"));
+        LocalDateTime updatedAt = rs.getObject("ekran_updated_at", LocalDateTime.class);
+
+        List<ScreenTable> tables = new ArrayList<>();
+        ScreenTable.ScreenTableBuilder table = null;
+        List<ScreenColumn> columns = null;
+        long currentTabloId = 0;
+        int columnCount = 0;
+
+        // Rows arrive grouped by table, columns already in siralama order
+        do {
+            long tabloId = rs.getLong("tablo_id");
+            if (rs.wasNull()) {
+                continue;
+            }
+            if (table == null || tabloId != currentTabloId) {
+                if (table != null) {
+                    tables.add(table.columns(List.copyOf(columns)).build());
+                }
+                currentTabloId = tabloId;
+                table = mapTable(rs);
+                columns = new ArrayList<>();
+                updatedAt = latest(updatedAt, rs.getObject("tablo_updated_at", LocalDateTime.class));
+            }
+
+            rs.getLong("kolon_id");
+            if (!rs.wasNull()) {
+                columns.add(mapColumn(rs));
+                columnCount++;
+                updatedAt = latest(updatedAt, rs.getObject("kolon_updated_at", LocalDateTime.class));
+            }
+        } while (rs.next());
+
+        if (table != null) {
+            tables.add(table.columns(List.copyOf(columns)).build());
+        }
+
+        updatedAt = latest(updatedAt, grantsUpdatedAt);
+
+        return screen
+                .tables(List.copyOf(tables))
+                .grants(grants)
+                .version(version(updatedAt, tables.size(), columnCount, grants.size()))
+                .build();
+    }
+
+    private static ScreenTable.ScreenTableBuilder mapTable(ResultSet rs) throws SQLException {
+        return ScreenTable.builder()
+                .tabloId(rs.getLong("tablo_id"))
+                .tabloAd(rs.getString("tablo_ad"))
+                .dbTablo(rs.getString("db_tablo"))
+                .tabloIdKolon(rs.getString("tablo_id_kolon"))
+                .tipi(TableType.of(rs.getString("tablo_tipi")))
+                .siralama(rs.getInt("tablo_siralama"))
+                .whereKosul(rs.getString("where_kosul"))
+                .whereCondition(condition(rs.getString("where_kosul"), "where_kosul of table " + rs.getString("tablo_ad")))
+                .ozellikSorgu1(rs.getString("ozellik_sorgu1"))
+                .ozellikSorgu2(rs.getString("ozellik_sorgu2"));
+    }
+
+    private static ScreenColumn mapColumn(ResultSet rs) throws SQLException {
+        return ScreenColumn.builder()
+                .kolonId(rs.getLong("kolon_id"))
+                .kolonAd(rs.getString("kolon_ad"))
+                .dbKolon(rs.getString("db_kolon"))
+                .tipi(ColumnType.of(rs.getString("kolon_tipi")))
+                .uzunluk(rs.getInt("uzunluk"))
+                .uzunlukSkala(rs.getInt("uzunluk_skala"))
+                .tabloGenislik(rs.getInt("tablo_genislik"))
+                .zorunlu(rs.getInt("zorunlu") == 1)
+                .gizli(rs.getInt("gizli") == 1)
+                .panel(rs.getInt("panel"))
+                .siralama(rs.getInt("kolon_siralama"))
+                .kodluAlan(CodedValue.parseList(rs.getString("kodlu_alan")))
+                .standartDeger(rs.getString("standart_deger"))
+                .joinTablo(rs.getString("join_tablo"))
+                .joinTabloDbKod(rs.getString("join_tablo_db_kod"))
+                .joinTabloDbAd(rs.getString("join_tablo_db_ad"))
+                .joinDbKolon(rs.getString("join_db_kolon"))
+                .joinTipi(rs.getString("join_tipi"))
+                .ozellikPanel1(rs.getString("ozellik_panel1"))
+                .ozellikPanel2(rs.getString("ozellik_panel2"))
+                .ozellikPanel3(rs.getString("ozellik_panel3"))
+                .ozellikKolon1(rs.getString("ozellik_kolon1"))
+                .ozellikKolon2(rs.getString("ozellik_kolon2"))
+                .joinCondition(condition(rs.getString("ozellik_kolon2"), "ozellik_kolon2 of column " + rs.getString("kolon_ad")))
+                .build();
+    }
+
+    /**
+     * Parse a condition once at load time, so placeholders are never scanned per query
+     */
+    private static SqlCondition condition(String text, String source) {
+        try {
+            return SqlCondition.parseOptional(text);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(ex.getMessage() + " in " + source, ex);
+        }
+    }
+
+    static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    static String version(LocalDateTime updatedAt, int tableCount, int columnCount, int grantCount) {
+        return updatedAt + ":" + tableCount + ":" + columnCount + ":" + grantCount;
+    }
+}
@@ -0,0 +1,263 @@
+package com.screenengine.repository;
+
+import com.screenengine.dto.CursorPage;
+import com.screenengine.dto.UserDTO;
+import com.screenengine.dto.UserSearchCriteria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read-side queries that return users together with their roles.
+ * Roles are fetched in the same statement and grouped in memory, so listing
+ * users costs one round trip regardless of the number of users.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserQueryRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String USERS_WITH_ROLES = """
+        SELECT u.user_id, u.username, u.email, u.full_name, u.fabrika_kod, u.active,
+               u.created_at, u.updated_at, r.role_code
+        FROM t_user u
+        LEFT JOIN t_user_role ur ON ur.user_id = u.user_id
+        LEFT JOIN t_role r ON r.role_id = ur.role_id AND r.active = 1
+        ORDER BY u.user_id, ur.user_role_id
+        """;
+
+    private static final String USER_COLUMNS = """
+        SELECT u.user_id, u.username, u.email, u.full_name, u.fabrika_kod, u.active,
+               u.created_at, u.updated_at
+        FROM t_user u
+        """;
+
+    private static final String ROLE_CODES_BY_USER_IDS = """
+        SELECT ur.user_id, r.role_code
+        FROM t_user_role ur
+        INNER JOIN t_role r ON r.role_id = ur.role_id
+        WHERE ur.user_id = ANY(?) AND r.active = 1
+        ORDER BY ur.user_id, ur.user_role_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stream all users with their active role codes, ordered by user ID.
+     * Rows are read through a forward-only cursor and each user is handed to
+     * the consumer as soon as its last role row has been read. On PostgreSQL
+     * the cursor only streams inside a transaction.
+     */
+    public void streamAllWithRoles(Consumer<UserDTO> consumer) {
+        UserRowAggregator aggregator = new UserRowAggregator(consumer);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(USERS_WITH_ROLES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, aggregator);
+        aggregator.finish();
+    }
+
+    /**
+     * Find one keyset page of users matching the criteria.
+     * The cursor holds the sort key of the last row of the previous page, so
+     * every page is an index range scan no matter how deep it is.
+     */
+    public CursorPage<UserDTO> findPage(UserSearchCriteria criteria) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder();
+        appendFilters(criteria, where, params);
+
+        Long total = null;
+        if (!criteria.isSkipTotal()) {
+            total = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM t_user u" + where, Long.class, params.toArray());
+        }
+
+        String sortColumn = criteria.getSort() == UserSearchCriteria.SortKey.USERNAME ? "u.username" : "u.user_id";
+        if (criteria.getCursor() != null && !criteria.getCursor().isBlank()) {
+            where.append(where.length() == 0 ? " WHERE " : " AND ")
+                    .append(sortColumn).append(criteria.isDescending() ? " < ?" : " > ?");
+            params.add(decodeCursor(criteria));
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        params.add(criteria.getSize() + 1);
+        String sql = USER_COLUMNS + where
+                + " ORDER BY " + sortColumn + (criteria.isDescending() ? " DESC" : " ASC")
+                + " LIMIT ?";
+        List<UserDTO> users = jdbcTemplate.query(sql, (rs, rowNum) -> mapUser(rs), params.toArray());
+
+        boolean hasMore = users.size() > criteria.getSize();
+        if (hasMore) {
+            users = new ArrayList<>(users.subList(0, criteria.getSize()));
+        }
+        attachRoles(users);
+
+        return CursorPage.<UserDTO>builder()
+                .items(users)
+                .nextCursor(hasMore ? encodeCursor(criteria, users.get(users.size() - 1)) : null)
+                .hasMore(hasMore)
+                .total(total)
+                .build();
+    }
+
+    /**
+     * Load the active role codes of a page of users with a single query
+     */
+    private void attachRoles(List<UserDTO> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+
+        Map<Long, UserDTO> byId = new HashMap<>(users.size() * 2);
+        Long[] ids = new Long[users.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = users.get(i).getUserId();
+            byId.put(ids[i], users.get(i));
+        }
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ROLE_CODES_BY_USER_IDS);
+            Array array = con.createArrayOf("bigint", ids);
+            ps.setArray(1, array);
+            return ps;
+        }, (RowCallbackHandler) rs -> byId.get(rs.getLong("user_id")).getRoles().add(rs.getString("role_code")));
+    }
+
+    private void appendFilters(UserSearchCriteria criteria, StringBuilder where, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+
+        if (criteria.getStatus() != null) {
+            conditions.add("u.active = ?");
+            params.add("ACTIVE".equalsIgnoreCase(criteria.getStatus()) ? 1 : 0);
+        }
+
+        if (criteria.getFabrikaKod() != null) {
+            conditions.add("u.fabrika_kod = ?");
+            params.add(criteria.getFabrikaKod());
+        }
+
+        if (criteria.getRole() != null && !criteria.getRole().isBlank()) {
+            String roleCode = criteria.getRole().startsWith("ROLE_") ? criteria.getRole() : "ROLE_" + criteria.getRole();
+            conditions.add("EXISTS (SELECT 1 FROM t_user_role ur INNER JOIN t_role r ON r.role_id = ur.role_id"
+                    + " WHERE ur.user_id = u.user_id AND r.role_code = ? AND r.active = 1)");
+            params.add(roleCode);
+        }
+
+        if (criteria.getQ() != null && !criteria.getQ().isBlank()) {
+            // Prefix match only, so the username and email indexes stay usable
+            String prefix = escapeLike(criteria.getQ().trim()) + "%";
+            conditions.add("(u.username LIKE ? ESCAPE '!' OR u.email LIKE ? ESCAPE '!')");
+            params.add(prefix);
+            params.add(prefix);
+        }
+
+        if (!conditions.isEmpty()) {
+            where.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    private static String encodeCursor(UserSearchCriteria criteria, UserDTO last) {
+        String value = criteria.getSort() == UserSearchCriteria.SortKey.USERNAME
+                ? last.getUsername()
+                : String.valueOf(last.getUserId());
+        String raw = criteria.getSort() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object decodeCursor(UserSearchCriteria criteria) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(criteria.getCursor()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String prefix = criteria.getSort() + ":";
+        if (!raw.startsWith(prefix)) {
+            throw new IllegalArgumentException("Cursor does not match sort key " + criteria.getSort());
+        }
+        String value = raw.substring(prefix.length());
+
+        if (criteria.getSort() == UserSearchCriteria.SortKey.USERNAME) {
+            return value;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Map the user columns of a row to a UserDTO with an empty role list
+     */
+    static UserDTO mapUser(ResultSet rs) throws SQLException {
+        return UserDTO.builder()
+                .userId(rs.getLong("user_id"))
+                .username(rs.getString("username"))
+                .email(rs.getString("email"))
+                .fullName(rs.getString("full_name"))
+                .fabrikaKod(rs.getObject("fabrika_kod", Long.class))
+                .roles(new ArrayList<>())
+                .status(rs.getInt("active") == 1 ? "ACTIVE" : "INACTIVE")
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .build();
+    }
+
+    /**
+     * Groups consecutive rows of the same user into one UserDTO
+     */
+    private static final class UserRowAggregator implements RowCallbackHandler {
+
+        private final Consumer<UserDTO> consumer;
+        private UserDTO current;
+
+        UserRowAggregator(Consumer<UserDTO> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long userId = rs.getLong("user_id");
+            if (current == null || current.getUserId() != userId) {
+                finish();
+                current = mapUser(rs);
+            }
+
+            String roleCode = rs.getString("role_code");
+            if (roleCode != null) {
+                current.getRoles().add(roleCode);
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
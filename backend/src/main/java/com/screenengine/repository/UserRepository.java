@@ -1,11 +1,13 @@
 package com.screenengine.repository;
 
 import com.screenengine.model.User;
+import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -37,4 +39,17 @@ public interface UserRepository extends CrudRepository<User, Long> {
      */
     @Query("SELECT COUNT(*) > 0 FROM t_user WHERE email = :email")
     boolean existsByEmail(@Param("email") String email);
+
+    /**
+     * Find the role IDs assigned to a user, in assignment order
+     */
+    @Query("SELECT role_id FROM t_user_role WHERE user_id = :userId ORDER BY user_role_id")
+    List<Long> findRoleIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Replace the stored password hash
+     */
+    @Modifying
+    @Query("UPDATE t_user SET password = :password, updated_at = CURRENT_TIMESTAMP WHERE user_id = :userId")
+    void updatePassword(@Param("userId") Long userId, @Param("password") String password);
 }
@@ -0,0 +1,35 @@
+package com.screenengine.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+
+/**
+ * PermissionEvaluator backed by the compiled permission bitsets.
+ * {@code hasPermission(null, 'USER_READ')} resolves the code to its dense ID
+ * in the role catalog and tests one bit on the principal; nothing is queried
+ * or allocated. Target objects are ignored, permissions are global.
+ */
+@Component
+@RequiredArgsConstructor
+public class BitsetPermissionEvaluator implements PermissionEvaluator {
+
+    private final RoleCatalog roleCatalog;
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)
+                || !(permission instanceof String permissionCode)) {
+            return false;
+        }
+        return principal.hasPermission(roleCatalog.permissionId(permissionCode));
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
+        return hasPermission(authentication, null, permission);
+    }
+}
@@ -2,11 +2,11 @@ package com.screenengine.security;
 
 import com.screenengine.model.Role;
 import com.screenengine.model.User;
-import com.screenengine.repository.RoleRepository;
 import com.screenengine.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -18,48 +18,84 @@ import java.util.Set;
 
 /**
  * Custom UserDetailsService implementation for loading user-specific data.
+ * Users are loaded in read-write transactions on purpose: read-only ones are served
+ * by a read replica, and a lagging replica would hand out a disabled account or an
+ * old security version that the principal cache then keeps. Principals are only
+ * ever built from the primary.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
+    private final PrincipalCache principalCache;
 
+    /**
+     * Load a user for a login. Logins always read the database, so a disabled
+     * or changed account is refused on every node at once; the cache is refreshed.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("Loading user by username: {}", username);
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return load(user);
+    }
 
-        // Load user roles
-        List<Role> roles = roleRepository.findByUserId(user.getUserId());
-        Set<Role> roleSet = new HashSet<>(roles);
-        user.setRoles(roleSet);
-
-        log.debug("User loaded: {}, roles: {}", username, roles.size());
-
-        return UserPrincipal.create(user, roleSet);
+    /**
+     * Load the user of a request authenticated by a token, from the cache while
+     * the cached principal's security version is current
+     */
+    @Transactional
+    public UserDetails loadCachedUserByUsername(String username) {
+        UserPrincipal cached = principalCache.getByUsername(username);
+        return cached != null ? cached : loadUserByUsername(username);
     }
 
     /**
-     * Load user by user ID
+     * Load user by user ID from the database, e.g. to check the account before refreshing tokens
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public UserDetails loadUserById(Long userId) {
         log.debug("Loading user by ID: {}", userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+        return load(user);
+    }
 
+    private UserPrincipal load(User user) {
         // Load user roles
-        List<Role> roles = roleRepository.findByUserId(user.getUserId());
+        List<Role> roles = roleCatalog.findActiveByIds(userRepository.findRoleIdsByUserId(user.getUserId()));
         Set<Role> roleSet = new HashSet<>(roles);
         user.setRoles(roleSet);
 
-        return UserPrincipal.create(user, roleSet);
+        log.debug("User loaded: {}, roles: {}", user.getUsername(), roles.size());
+
+        UserPrincipal principal = UserPrincipal.create(user, roleSet);
+        principal = principal.withPermissionBits(roleCatalog.permissionBits(principal.getAuthorities()));
+        principalCache.put(principal);
+        return principal;
+    }
+
+    /**
+     * Store a rehashed password after a successful login.
+     * Called by the authentication provider when the stored hash uses an outdated cost factor.
+     * Cached principals are shared between threads, so the cached entry is dropped
+     * and a copy with the new hash is returned instead of changing the instance.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userRepository.updatePassword(principal.getUserId(), newPassword);
+        principalCache.invalidate(principal.getUserId());
+        log.info("Rehashed password for user: {}", principal.getUsername());
+
+        return principal.withPassword(newPassword);
     }
 }
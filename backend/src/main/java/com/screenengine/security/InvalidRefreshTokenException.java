@@ -0,0 +1,13 @@
+package com.screenengine.security;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Thrown when a refresh token is unknown, expired, revoked or reused.
+ */
+public class InvalidRefreshTokenException extends AuthenticationException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.screenengine.security;
 
+import com.screenengine.config.ScreenEngineProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +28,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final SecurityVersionRegistry securityVersionRegistry;
+    private final RoleCatalog roleCatalog;
+    private final ScreenEngineProperties properties;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -35,16 +39,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            TokenVerification verification = tokenProvider.verify(jwt);
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (verification.isValid()) {
+                UserDetails userDetails = loadUserDetails(verification.getToken());
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("Set authentication for user: {}", username);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    log.debug("Set authentication for user: {}", userDetails.getUsername());
+                }
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
@@ -53,6 +60,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Resolve the principal for a verified token.
+     * In stateless mode the principal is rebuilt from the token claims and only
+     * checked against the in-memory security version; tokens without those
+     * claims fall back to loading the user from the database. The permission
+     * bitset claim is trusted only when it was compiled against the current
+     * catalog; otherwise it is recompiled from the role claims.
+     */
+    private UserDetails loadUserDetails(VerifiedToken token) {
+        if (properties.getSecurity().getJwt().isStateless() && token.isStateless()) {
+            if (!token.getEnabled()
+                    || !securityVersionRegistry.isCurrent(token.getUserId(), token.getSecurityVersion())) {
+                log.debug("Rejected revoked token for user: {}", token.getUsername());
+                return null;
+            }
+            UserPrincipal principal = UserPrincipal.create(token);
+            if (principal.getPermissionBits() == null
+                    || !roleCatalog.getPermissionsVersion().equals(token.getPermissionsVersion())) {
+                principal = principal.withPermissionBits(roleCatalog.permissionBits(principal.getAuthorities()));
+            }
+            return principal;
+        }
+
+        UserDetails userDetails = customUserDetailsService.loadCachedUserByUsername(token.getUsername());
+        return userDetails.isEnabled() ? userDetails : null;
+    }
+
     /**
      * Extract JWT token from Authorization header
      */
@@ -1,8 +1,11 @@
 package com.screenengine.security;
 
 import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.util.BoundedTtlCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,20 +14,52 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * JWT Token Provider for generating and validating JWT tokens.
+ * Verification results are cached by token digest: verified tokens until
+ * their expiry, rejected tokens for a short while.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class JwtTokenProvider {
+public class JwtTokenProvider implements MeterBinder {
+
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_FULL_NAME = "fullName";
+    public static final String CLAIM_FABRIKA_KOD = "fabrikaKod";
+    public static final String CLAIM_ENABLED = "enabled";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+    public static final String CLAIM_PERMISSIONS = "perms";
+    public static final String CLAIM_PERMISSIONS_VERSION = "pv";
 
     private final ScreenEngineProperties properties;
+    private final SecurityVersionRegistry securityVersionRegistry;
+    private final RoleCatalog roleCatalog;
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    });
+
     private SecretKey secretKey;
+    private JwtParser parser;
+    private boolean cacheEnabled;
+    private BoundedTtlCache<ByteBuffer, TokenVerification> verifiedTokens;
+    private BoundedTtlCache<ByteBuffer, TokenVerification> rejectedTokens;
 
     @PostConstruct
     public void init() {
@@ -34,26 +69,87 @@ public class JwtTokenProvider {
             secret = secret + "0".repeat(32 - secret.length());
         }
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        // Parsers are immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+
+        ScreenEngineProperties.Cache cache = properties.getCache();
+        this.cacheEnabled = cache.isEnabled();
+        this.verifiedTokens = new BoundedTtlCache<>("verified-tokens", cache.getTokenMaxSize(),
+                Duration.ofMillis(properties.getSecurity().getJwt().getExpiration()));
+        this.rejectedTokens = new BoundedTtlCache<>("rejected-tokens", cache.getRejectedTokenMaxSize(),
+                Duration.ofSeconds(cache.getRejectedTokenTtl()));
     }
 
     /**
      * Generate JWT token from authentication
      */
     public String generateToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        return generateTokenFromUsername(
-            userPrincipal.getUsername(),
-            userPrincipal.getUserId(),
-            userPrincipal.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList())
-        );
+        return generateToken((UserPrincipal) authentication.getPrincipal());
+    }
+
+    /**
+     * Generate JWT token carrying every claim needed to rebuild the principal
+     */
+    public String generateToken(UserPrincipal userPrincipal) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + properties.getSecurity().getJwt().getExpiration());
+
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getUserId())
+                .claim(CLAIM_ROLES, userPrincipal.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList()))
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_FULL_NAME, userPrincipal.getFullName())
+                .claim(CLAIM_FABRIKA_KOD, userPrincipal.getFabrikaKod())
+                .claim(CLAIM_ENABLED, userPrincipal.isEnabled())
+                .claim(CLAIM_SECURITY_VERSION, securityVersionRegistry.currentVersion(userPrincipal.getUserId()))
+                .setIssuedAt(now)
+                .setExpiration(expiryDate);
+
+        if (properties.getSecurity().getJwt().isPermissionsClaim() && userPrincipal.getPermissionBits() != null) {
+            builder.claim(CLAIM_PERMISSIONS, encodePermissionBits(userPrincipal.getPermissionBits()))
+                    .claim(CLAIM_PERMISSIONS_VERSION, roleCatalog.getPermissionsVersion());
+        }
+
+        return builder
+                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Encode a permission bitset as URL-safe Base64 of its big-endian words
+     */
+    static String encodePermissionBits(long[] bits) {
+        ByteBuffer buffer = ByteBuffer.allocate(bits.length * Long.BYTES);
+        buffer.asLongBuffer().put(bits);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decode a permission bitset claim, or null when it is malformed
+     */
+    static long[] decodePermissionBits(String claim) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(claim);
+            if (bytes.length % Long.BYTES != 0) {
+                return null;
+            }
+            long[] bits = new long[bytes.length / Long.BYTES];
+            ByteBuffer.wrap(bytes).asLongBuffer().get(bits);
+            return bits;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
 
     /**
      * Generate JWT token from username
      */
-    public String generateTokenFromUsername(String username, Long userId, java.util.List<String> roles) {
+    public String generateTokenFromUsername(String username, Long userId, List<String> roles) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + properties.getSecurity().getJwt().getExpiration());
 
@@ -68,77 +164,102 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Get username from JWT token
+     * Verify a JWT token once and extract all of its claims.
+     * Rejections are reported through the result status rather than logged
+     * as errors, and repeated tokens are answered from the digest caches
+     * without decoding or re-checking the signature.
      */
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public TokenVerification verify(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenVerification.failure(TokenVerification.Status.EMPTY);
+        }
+        if (!cacheEnabled) {
+            return parse(token);
+        }
 
-        return claims.getSubject();
+        ByteBuffer key = digest(token);
+        TokenVerification cached = verifiedTokens.get(key);
+        if (cached == null) {
+            cached = rejectedTokens.get(key);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        TokenVerification verification = parse(token);
+        if (verification.isValid() && verification.getToken().getExpiration() != null) {
+            verifiedTokens.put(key, verification, verification.getToken().getExpiration().getTime());
+        } else if (!verification.isValid()) {
+            rejectedTokens.put(key, verification);
+        }
+        return verification;
+    }
+
+    private TokenVerification parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return TokenVerification.valid(VerifiedToken.from(claims));
+        } catch (ExpiredJwtException ex) {
+            return reject(TokenVerification.Status.EXPIRED);
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            return reject(TokenVerification.Status.INVALID_SIGNATURE);
+        } catch (UnsupportedJwtException ex) {
+            return reject(TokenVerification.Status.UNSUPPORTED);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return reject(TokenVerification.Status.MALFORMED);
+        }
     }
 
     /**
-     * Get user ID from JWT token
+     * Get username from JWT token, or null if the token is invalid
      */
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public String getUsernameFromToken(String token) {
+        TokenVerification verification = verify(token);
+        return verification.isValid() ? verification.getToken().getUsername() : null;
+    }
 
-        return claims.get("userId", Long.class);
+    /**
+     * Get user ID from JWT token, or null if the token is invalid
+     */
+    public Long getUserIdFromToken(String token) {
+        TokenVerification verification = verify(token);
+        return verification.isValid() ? verification.getToken().getUserId() : null;
     }
 
     /**
      * Validate JWT token
      */
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (SecurityException ex) {
-            log.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty");
-        }
-        return false;
+        return verify(authToken).isValid();
     }
 
     /**
-     * Get expiration date from token
+     * Get expiration date from token, or null if the token is invalid
      */
     public Date getExpirationFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getExpiration();
+        TokenVerification verification = verify(token);
+        return verification.isValid() ? verification.getToken().getExpiration() : null;
     }
 
     /**
      * Check if token is expired
      */
     public boolean isTokenExpired(String token) {
-        try {
-            Date expiration = getExpirationFromToken(token);
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+        return verify(token).getStatus() == TokenVerification.Status.EXPIRED;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        verifiedTokens.bindTo(registry);
+        rejectedTokens.bindTo(registry);
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private TokenVerification reject(TokenVerification.Status status) {
+        log.debug("Rejected JWT token: {}", status);
+        return TokenVerification.failure(status);
     }
 }
@@ -0,0 +1,127 @@
+package com.screenengine.security;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks failed logins per username and per client IP in sliding windows.
+ * Checked before authentication, so once a key is over its limit further
+ * attempts are refused without a user lookup or a BCrypt verification.
+ * Counters live in memory only; the persistent failed_attempts column is
+ * maintained separately by the login activity write-behind.
+ */
+@Slf4j
+@Component
+public class LoginAttemptTracker implements MeterBinder {
+
+    private final ScreenEngineProperties.LoginAttempts config;
+    private final long windowMillis;
+    private final ConcurrentHashMap<String, SlidingWindowCounter> userFailures = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SlidingWindowCounter> ipFailures = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private Counter blocked;
+
+    public LoginAttemptTracker(ScreenEngineProperties properties) {
+        this.config = properties.getLoginAttempts();
+        this.windowMillis = config.getWindow() * 1000L;
+    }
+
+    /**
+     * Refuse the attempt when the username or client IP failed too often recently
+     */
+    public void checkAllowed(String username, String clientIp) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        check(userFailures.get(normalize(username)), config.getMaxUserFailures(), now, "username", username);
+        if (clientIp != null) {
+            check(ipFailures.get(clientIp), config.getMaxIpFailures(), now, "client IP", clientIp);
+        }
+    }
+
+    /**
+     * Count a failed login for the username and the client IP
+     */
+    public void recordFailure(String username, String clientIp) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        userFailures.computeIfAbsent(normalize(username), key -> newCounter()).increment(now);
+        if (clientIp != null) {
+            ipFailures.computeIfAbsent(clientIp, key -> newCounter()).increment(now);
+        }
+
+        if (userFailures.size() + ipFailures.size() > config.getMaxTrackedKeys()) {
+            sweep(now);
+        }
+    }
+
+    /**
+     * Clear the username's failures after a successful login.
+     * The IP counter is kept, so one valid account cannot reset an IP spraying others.
+     */
+    public void recordSuccess(String username) {
+        userFailures.remove(normalize(username));
+    }
+
+    private void check(SlidingWindowCounter counter, int limit, long now, String kind, String key) {
+        if (counter == null || counter.sum(now) < limit) {
+            return;
+        }
+        if (blocked != null) {
+            blocked.increment();
+        }
+        long retryAfter = Math.max(1, (counter.millisUntilDecay(now) + 999) / 1000);
+        log.warn("Login blocked for {} {}: too many failed attempts", kind, key);
+        throw new LoginBlockedException("Too many failed login attempts", retryAfter);
+    }
+
+    /**
+     * Drop counters with no failures left in the window, keeping memory bounded under spraying
+     */
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            userFailures.values().removeIf(counter -> counter.sum(now) == 0);
+            ipFailures.values().removeIf(counter -> counter.sum(now) == 0);
+            if (userFailures.size() + ipFailures.size() > config.getMaxTrackedKeys()) {
+                log.warn("Login attempt tracker holds {} active keys, above max-tracked-keys",
+                        userFailures.size() + ipFailures.size());
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(windowMillis, config.getBuckets());
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        blocked = Counter.builder("login.attempts.blocked")
+                .description("Logins refused before authentication because of recent failures")
+                .register(registry);
+        registry.gauge("login.attempts.tracked", userFailures, map -> map.size() + ipFailures.size());
+    }
+}
@@ -0,0 +1,19 @@
+package com.screenengine.security;
+
+import lombok.Getter;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Thrown when a login is refused because of too many recent failures
+ * for the username or client IP.
+ */
+@Getter
+public class LoginBlockedException extends AuthenticationException {
+
+    private final long retryAfterSeconds;
+
+    public LoginBlockedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,20 @@
+package com.screenengine.security;
+
+import lombok.Getter;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing pool is saturated or a hash did not finish in time.
+ * Extends InternalAuthenticationServiceException so the authentication manager
+ * propagates it as-is instead of treating it as bad credentials.
+ */
+@Getter
+public class PasswordHashingBusyException extends InternalAuthenticationServiceException {
+
+    private final int retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
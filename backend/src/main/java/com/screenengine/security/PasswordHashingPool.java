@@ -0,0 +1,218 @@
+package com.screenengine.security;
+
+import com.screenengine.config.ScreenEngineProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pool for CPU-bound password hashing.
+ * Keeps BCrypt work off request threads and caps how many cores it can take.
+ * Single hashes fail fast with {@link PasswordHashingBusyException} when the
+ * queue is full or the configured timeout passes, so a login burst turns into
+ * quick 503 responses instead of pinning every servlet thread.
+ * A request is also refused up front when the work already queued, at the
+ * measured average hash time, would not finish within the timeout, so callers
+ * are not parked on a wait that is bound to expire.
+ * Bulk hashing, e.g. for imports, runs on a separate smaller pool: a long batch
+ * never holds the threads that logins wait for.
+ */
+@Slf4j
+@Component
+public class PasswordHashingPool implements MeterBinder {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final int threads;
+    private final long timeoutMillis;
+    private final int retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+    private final int bulkThreads;
+    private final ThreadPoolExecutor bulkExecutor;
+    /** Moving average of a single hash, 0 until the first one completes; updates may race, which only blurs it */
+    private volatile long averageHashNanos;
+
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejected;
+
+    public PasswordHashingPool(ScreenEngineProperties properties) {
+        ScreenEngineProperties.PasswordHashing config = properties.getSecurity().getPasswordHashing();
+
+        this.bcrypt = new BCryptPasswordEncoder(config.getStrength());
+        this.threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.timeoutMillis = config.getTimeout();
+        this.retryAfterSeconds = config.getRetryAfter();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.bulkThreads = config.getBulkThreads() > 0 ? config.getBulkThreads() : Math.max(1, threads / 2);
+        this.bulkExecutor = new ThreadPoolExecutor(
+                bulkThreads, bulkThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(bulkThreads * 4),
+                new CustomizableThreadFactory("password-hash-bulk-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        log.info("Password hashing pool started with {} threads ({} for bulk hashing), BCrypt strength {}",
+                threads, bulkThreads, config.getStrength());
+    }
+
+    /**
+     * Hash a password on the pool
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> timed(encodeTimer, () -> bcrypt.encode(rawPassword)));
+    }
+
+    /**
+     * Check a password against a stored hash on the pool
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> timed(matchesTimer, () -> bcrypt.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * True when the hash was made with a lower cost than the configured strength.
+     * Only parses the hash, so it runs on the calling thread.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Hash many passwords in parallel on the bulk pool, preserving order.
+     * The list is split into at most one slice per bulk thread; when the
+     * bulk queue is full a slice runs on the calling thread, which throttles
+     * bulk callers instead of failing them.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int size = rawPasswords.size();
+        String[] encoded = new String[size];
+        int slices = Math.min(bulkThreads, size);
+        List<Future<?>> futures = new ArrayList<>(slices);
+
+        for (int slice = 0; slice < slices; slice++) {
+            int from = slice * size / slices;
+            int to = (slice + 1) * size / slices;
+            Runnable task = () -> {
+                for (int i = from; i < to; i++) {
+                    String raw = rawPasswords.get(i);
+                    encoded[i] = timed(encodeTimer, () -> bcrypt.encode(raw));
+                }
+            };
+            try {
+                futures.add(bulkExecutor.submit(task));
+            } catch (RejectedExecutionException ex) {
+                task.run();
+            }
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing passwords", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Password hashing failed", ex.getCause());
+            }
+        }
+        return Arrays.asList(encoded);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long expectedWaitNanos = (executor.getQueue().size() / threads + 1) * averageHashNanos;
+        if (expectedWaitNanos > TimeUnit.MILLISECONDS.toNanos(timeoutMillis)) {
+            throw busy("Password hashing queue cannot be served within the timeout");
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            throw busy("Password hashing pool is saturated");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw busy("Password hashing timed out");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private PasswordHashingBusyException busy(String message) {
+        if (rejected != null) {
+            rejected.increment();
+        }
+        log.warn("{}: {} queued, {} active", message, executor.getQueue().size(), executor.getActiveCount());
+        return new PasswordHashingBusyException(message, retryAfterSeconds);
+    }
+
+    private <T> T timed(Timer timer, Supplier<T> work) {
+        long started = System.nanoTime();
+        T result = timer != null ? timer.record(work) : work.get();
+        long elapsed = System.nanoTime() - started;
+        long average = averageHashNanos;
+        averageHashNanos = average == 0 ? elapsed : average + (elapsed - average) / 8;
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        encodeTimer = Timer.builder("password.hash.duration")
+                .description("Time spent computing password hashes")
+                .tag("operation", "encode")
+                .register(registry);
+        matchesTimer = Timer.builder("password.hash.duration")
+                .description("Time spent computing password hashes")
+                .tag("operation", "matches")
+                .register(registry);
+        rejected = Counter.builder("password.hash.rejected")
+                .description("Hash requests rejected because the pool was saturated or timed out")
+                .register(registry);
+        Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a pool thread")
+                .register(registry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Pool threads currently hashing")
+                .register(registry);
+        Gauge.builder("password.hash.bulk.active", bulkExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Bulk pool threads currently hashing")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        bulkExecutor.shutdown();
+    }
+}
@@ -0,0 +1,29 @@
+package com.screenengine.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder that runs BCrypt on the bounded {@link PasswordHashingPool}
+ * instead of the calling request thread.
+ */
+@RequiredArgsConstructor
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordHashingPool pool;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return pool.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return pool.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return pool.upgradeEncoding(encodedPassword);
+    }
+}
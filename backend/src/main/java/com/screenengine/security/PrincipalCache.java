@@ -0,0 +1,113 @@
+package com.screenengine.security;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Cache of loaded user principals, keyed by user ID with a username index.
+ * The index only maps usernames to IDs, so invalidating a user by ID is
+ * enough even after a rename: stale index entries simply miss.
+ * Invalidation only reaches the local node, so every hit is also checked
+ * against {@link SecurityVersionRegistry}, which follows bumps made on other
+ * nodes: a principal loaded at another security version is dropped.
+ */
+@Slf4j
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final SecurityVersionRegistry securityVersionRegistry;
+    private final BoundedTtlCache<Long, UserPrincipal> principals;
+    private final BoundedTtlCache<String, Long> usernames;
+
+    public PrincipalCache(ScreenEngineProperties properties, SecurityVersionRegistry securityVersionRegistry) {
+        ScreenEngineProperties.Cache cache = properties.getCache();
+        Duration ttl = Duration.ofSeconds(cache.getTtl());
+
+        this.enabled = cache.isEnabled();
+        this.securityVersionRegistry = securityVersionRegistry;
+        this.principals = new BoundedTtlCache<>("principals", cache.getPrincipalMaxSize(), ttl);
+        this.usernames = new BoundedTtlCache<>("principal-usernames", cache.getPrincipalMaxSize(), ttl);
+    }
+
+    /**
+     * Get a cached principal by username
+     */
+    public UserPrincipal getByUsername(String username) {
+        if (!enabled) {
+            return null;
+        }
+        Long userId = usernames.get(username);
+        if (userId == null) {
+            return null;
+        }
+        UserPrincipal principal = principals.get(userId);
+        if (principal == null || !username.equals(principal.getUsername())) {
+            return null;
+        }
+        if (!isCurrent(principal)) {
+            principals.invalidate(userId);
+            log.debug("Dropped cached principal of revoked security version for user ID: {}", userId);
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * Cache a freshly loaded principal under both keys.
+     * A principal read at another version than the registry knows is not cached:
+     * either it predates a bump or the registry has not caught up yet.
+     */
+    public void put(UserPrincipal principal) {
+        if (enabled && isCurrent(principal)) {
+            principals.put(principal.getUserId(), principal);
+            usernames.put(principal.getUsername(), principal.getUserId());
+        }
+    }
+
+    /**
+     * Drop a user's principal now and again once the current transaction
+     * commits, so a concurrent load cannot re-cache pre-commit data.
+     */
+    public void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        principals.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(userId);
+                }
+            });
+        }
+        log.debug("Invalidated cached principal for user ID: {}", userId);
+    }
+
+    private boolean isCurrent(UserPrincipal principal) {
+        return principal.getSecurityVersion() == securityVersionRegistry.currentVersion(principal.getUserId());
+    }
+
+    /**
+     * Drop every cached principal, e.g. after role or permission changes
+     */
+    public void invalidateAll() {
+        principals.invalidateAll();
+        usernames.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        principals.bindTo(registry);
+        usernames.bindTo(registry);
+    }
+}
@@ -0,0 +1,263 @@
+package com.screenengine.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.dto.ApiResponse;
+import com.screenengine.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limiting filter.
+ * Each configured route group has one token bucket per client key (IP,
+ * authenticated user ID, or the username a login request is for). Runs after
+ * the JWT filter so user keys are known; rejected requests get 429 with
+ * Retry-After. Username-keyed groups can add a looser per-address bucket, so
+ * one address cannot try many usernames. Buckets that have been full for
+ * idle-eviction seconds are dropped.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final ScreenEngineProperties.RateLimit config;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final long idleNanos;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private Counter rejected;
+
+    public RateLimitFilter(ScreenEngineProperties properties, ObjectMapper objectMapper) {
+        this.config = properties.getRateLimit();
+        this.objectMapper = objectMapper;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(config.getIdleEviction());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ScreenEngineProperties.RateLimitGroup group = config.isEnabled() ? findGroup(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (group.getKey() == ScreenEngineProperties.RateLimitKey.USERNAME) {
+            request = CachedBodyRequest.wrap(request);
+        }
+
+        long now = System.nanoTime();
+        String client = clientKey(group, request);
+        boolean addressCap = group.getKey() == ScreenEngineProperties.RateLimitKey.USERNAME && group.getIpCapacity() > 0;
+        String key = null;
+        long waitNanos = 0;
+        // Requests without a username (e.g. token refresh) only count against the address cap when there is one
+        if (!addressCap || !client.equals(request.getRemoteAddr())) {
+            key = group.getName() + ":" + client;
+            waitNanos = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(group.getCapacity(), group.getRefillPerSecond())).tryAcquire(now);
+        }
+        if (waitNanos == 0 && addressCap) {
+            key = group.getName() + ":ip:" + request.getRemoteAddr();
+            waitNanos = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(group.getIpCapacity(), group.getIpRefillPerSecond())).tryAcquire(now);
+        }
+        sweepIfDue(now);
+
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (rejected != null) {
+            rejected.increment();
+        }
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("Rate limit exceeded for {} on {}", key, request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("RATE_LIMITED", "Too many requests, please retry later"));
+    }
+
+    private ScreenEngineProperties.RateLimitGroup findGroup(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (ScreenEngineProperties.RateLimitGroup group : config.getGroups()) {
+            for (String pattern : group.getPatterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(ScreenEngineProperties.RateLimitGroup group, HttpServletRequest request) {
+        if (group.getKey() == ScreenEngineProperties.RateLimitKey.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+                return "u" + principal.getUserId();
+            }
+        }
+        if (group.getKey() == ScreenEngineProperties.RateLimitKey.USERNAME
+                && request instanceof CachedBodyRequest cached) {
+            String username = cached.username(objectMapper);
+            if (username != null) {
+                return "n" + username;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Drop idle buckets once per idle period, or right away when there are too many
+     */
+    private void sweepIfDue(long now) {
+        boolean due = now - lastSweep.get() > idleNanos || buckets.size() > config.getMaxBuckets();
+        if (!due || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastSweep.set(now);
+            long idleSince = now - idleNanos;
+            buckets.values().removeIf(bucket -> bucket.isIdleSince(idleSince));
+            if (buckets.size() > config.getMaxBuckets()) {
+                // Still too many active keys: drop full buckets, they lose nothing
+                buckets.values().removeIf(bucket -> bucket.isIdleSince(now));
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Keeps a small JSON body in memory so the username can be read here
+     * and the body still reaches the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private static final int MAX_BODY = 8 * 1024;
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * Wrap requests with a JSON body of known, small length; others pass unchanged
+         */
+        static HttpServletRequest wrap(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            String contentType = request.getContentType();
+            if (length <= 0 || length > MAX_BODY || contentType == null
+                    || !contentType.toLowerCase(Locale.ROOT).contains("json")) {
+                return request;
+            }
+            return new CachedBodyRequest(request, request.getInputStream().readNBytes((int) length));
+        }
+
+        String username(ObjectMapper objectMapper) {
+            try {
+                JsonNode username = objectMapper.readTree(body).path("username");
+                String value = username.isTextual() ? username.asText().trim().toLowerCase(Locale.ROOT) : "";
+                return value.isEmpty() ? null : value;
+            } catch (IOException ex) {
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The whole body is already in memory, so it is available and read at once
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejected = Counter.builder("http.rate.limited")
+                .description("Requests rejected by the rate limit filter")
+                .register(registry);
+        registry.gauge("http.rate.buckets", buckets, ConcurrentHashMap::size);
+    }
+}
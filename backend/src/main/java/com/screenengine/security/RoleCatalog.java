@@ -0,0 +1,296 @@
+package com.screenengine.security;
+
+import com.screenengine.model.Permission;
+import com.screenengine.model.Role;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory catalog of roles, permissions and role-permission grants.
+ * The tables change a few times a year, so they are loaded once into an
+ * immutable snapshot that readers use without any query. Permission codes are
+ * compiled into dense IDs (position by permission_id) and each role into a
+ * bitset over those IDs, so a permission check is a single bit test. A content hash
+ * of the tables is polled and the snapshot is rebuilt and swapped atomically when the
+ * data changed; {@link #refresh()} forces a reload after local changes.
+ * Returned Role and Permission instances are shared and must not be modified.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleCatalog {
+
+    /**
+     * Hash over every row of the three tables, so in-place updates are seen as well as
+     * inserts and deletes; the tables hold tens of rows, so hashing them all is cheap
+     */
+    private static final String FINGERPRINT = """
+        SELECT md5(
+            (SELECT COALESCE(string_agg(r::text, ',' ORDER BY r.role_id), '') FROM t_role r)
+            || '#' || (SELECT COALESCE(string_agg(p::text, ',' ORDER BY p.permission_id), '') FROM t_permission p)
+            || '#' || (SELECT COALESCE(string_agg(rp.role_id || ':' || rp.permission_id, ',' ORDER BY rp.role_id, rp.permission_id), '')
+                       FROM t_role_permission rp))
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrincipalCache principalCache;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Reload the catalog and swap it in
+     */
+    public synchronized void refresh() {
+        String fingerprint = jdbcTemplate.queryForObject(FINGERPRINT, String.class);
+        Snapshot loaded = load(fingerprint);
+        Snapshot previous = snapshot.getAndSet(loaded);
+        if (previous != Snapshot.EMPTY) {
+            // Cached principals carry permission bitsets compiled against the old snapshot
+            principalCache.invalidateAll();
+        }
+        log.info("Role catalog loaded: {} roles, {} permissions", loaded.rolesById.size(), loaded.permissionsByCode.size());
+    }
+
+    /**
+     * Reload when the fingerprint of the role tables changed
+     */
+    @Scheduled(fixedDelayString = "${screen-engine.cache.catalog-refresh-interval:60000}",
+            initialDelayString = "${screen-engine.cache.catalog-refresh-interval:60000}")
+    public void refreshIfChanged() {
+        try {
+            String fingerprint = jdbcTemplate.queryForObject(FINGERPRINT, String.class);
+            if (!fingerprint.equals(snapshot.get().fingerprint)) {
+                refresh();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not check role catalog for changes: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Find a role by code, active or not
+     */
+    public Optional<Role> findByCode(String roleCode) {
+        return Optional.ofNullable(snapshot.get().rolesByCode.get(roleCode));
+    }
+
+    /**
+     * Find an active role by code
+     */
+    public Optional<Role> findActiveByCode(String roleCode) {
+        return findByCode(roleCode).filter(Role::isActive);
+    }
+
+    /**
+     * Active roles among the given IDs, in the given order
+     */
+    public List<Role> findActiveByIds(Collection<Long> roleIds) {
+        Map<Long, Role> rolesById = snapshot.get().rolesById;
+        List<Role> roles = new ArrayList<>(roleIds.size());
+        for (Long roleId : roleIds) {
+            Role role = rolesById.get(roleId);
+            if (role != null && role.isActive()) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * All active roles ordered by name
+     */
+    public List<Role> findAllActive() {
+        return snapshot.get().activeRoles;
+    }
+
+    /**
+     * Permission codes granted to a role
+     */
+    public Set<String> getPermissionCodes(Long roleId) {
+        return snapshot.get().permissionCodesByRoleId.getOrDefault(roleId, Set.of());
+    }
+
+    /**
+     * All permissions ordered by ID
+     */
+    public Collection<Permission> findAllPermissions() {
+        return snapshot.get().permissionsByCode.values();
+    }
+
+    /**
+     * Dense ID of a permission code, or -1 when unknown
+     */
+    public int permissionId(String permissionCode) {
+        Integer id = snapshot.get().permissionIds.get(permissionCode);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Union of the permission bitsets of the given active role codes
+     */
+    public long[] permissionBits(Collection<? extends GrantedAuthority> authorities) {
+        Snapshot current = snapshot.get();
+        long[] bits = new long[current.bitsetLength];
+        for (GrantedAuthority authority : authorities) {
+            long[] roleBits = current.permissionBitsByRoleCode.get(authority.getAuthority());
+            if (roleBits != null) {
+                for (int i = 0; i < bits.length; i++) {
+                    bits[i] |= roleBits[i];
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Identifies the permission ID assignment and the grants of active roles;
+     * bitsets built under another version are stale
+     */
+    public String getPermissionsVersion() {
+        return snapshot.get().permissionsVersion;
+    }
+
+    private Snapshot load(String fingerprint) {
+        List<Role> roles = jdbcTemplate.query(
+                "SELECT role_id, role_name, role_code, description, active, created_at, updated_at FROM t_role ORDER BY role_name",
+                (rs, rowNum) -> Role.builder()
+                        .roleId(rs.getLong("role_id"))
+                        .roleName(rs.getString("role_name"))
+                        .roleCode(rs.getString("role_code"))
+                        .description(rs.getString("description"))
+                        .active(rs.getInt("active"))
+                        .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                        .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                        .build());
+
+        List<Permission> permissions = jdbcTemplate.query(
+                "SELECT permission_id, permission_name, permission_code, resource, action, description, created_at FROM t_permission ORDER BY permission_id",
+                (rs, rowNum) -> Permission.builder()
+                        .permissionId(rs.getLong("permission_id"))
+                        .permissionName(rs.getString("permission_name"))
+                        .permissionCode(rs.getString("permission_code"))
+                        .resource(rs.getString("resource"))
+                        .action(rs.getString("action"))
+                        .description(rs.getString("description"))
+                        .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                        .build());
+
+        Map<Long, Set<String>> grants = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT rp.role_id, p.permission_code
+                FROM t_role_permission rp
+                INNER JOIN t_permission p ON p.permission_id = rp.permission_id
+                """, (RowCallbackHandler) rs -> grants
+                .computeIfAbsent(rs.getLong("role_id"), id -> new HashSet<>())
+                .add(rs.getString("permission_code")));
+
+        Map<String, Role> rolesByCode = new HashMap<>();
+        Map<Long, Role> rolesById = new HashMap<>();
+        List<Role> activeRoles = new ArrayList<>();
+        for (Role role : roles) {
+            rolesByCode.put(role.getRoleCode(), role);
+            rolesById.put(role.getRoleId(), role);
+            if (role.isActive()) {
+                activeRoles.add(role);
+            }
+        }
+
+        // Dense IDs follow permission_id order, so new permissions are appended
+        Map<String, Permission> permissionsByCode = new LinkedHashMap<>();
+        Map<String, Integer> permissionIds = new HashMap<>();
+        for (Permission permission : permissions) {
+            permissionIds.put(permission.getPermissionCode(), permissionIds.size());
+            permissionsByCode.put(permission.getPermissionCode(), permission);
+        }
+        int bitsetLength = (permissionIds.size() + 63) >>> 6;
+
+        Map<Long, Set<String>> permissionCodesByRoleId = new HashMap<>();
+        Map<String, long[]> permissionBitsByRoleCode = new HashMap<>();
+        grants.forEach((roleId, codes) -> {
+            permissionCodesByRoleId.put(roleId, Set.copyOf(codes));
+
+            Role role = rolesById.get(roleId);
+            if (role != null && role.isActive()) {
+                long[] bits = new long[bitsetLength];
+                for (String code : codes) {
+                    int id = permissionIds.get(code);
+                    bits[id >>> 6] |= 1L << id;
+                }
+                permissionBitsByRoleCode.put(role.getRoleCode(), bits);
+            }
+        });
+
+        String permissionsVersion = permissionsVersion(permissionsByCode.keySet(), permissionBitsByRoleCode);
+
+        return new Snapshot(fingerprint, Map.copyOf(rolesByCode), Map.copyOf(rolesById), List.copyOf(activeRoles),
+                Collections.unmodifiableMap(permissionsByCode), Map.copyOf(permissionCodesByRoleId),
+                Map.copyOf(permissionIds), Map.copyOf(permissionBitsByRoleCode), bitsetLength, permissionsVersion);
+    }
+
+    /**
+     * SHA-256 over the permission codes in ID order and every active role's bitset,
+     * truncated to 128 bits to keep tokens short
+     */
+    private static String permissionsVersion(Collection<String> permissionCodes, Map<String, long[]> bitsByRoleCode) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+        digest.update(String.join(",", permissionCodes).getBytes(StandardCharsets.UTF_8));
+        ByteBuffer word = ByteBuffer.allocate(Long.BYTES);
+        for (String roleCode : new TreeSet<>(bitsByRoleCode.keySet())) {
+            digest.update((";" + roleCode + "=").getBytes(StandardCharsets.UTF_8));
+            for (long bits : bitsByRoleCode.get(roleCode)) {
+                digest.update(word.clear().putLong(bits).array());
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16));
+    }
+
+    private record Snapshot(String fingerprint,
+                            Map<String, Role> rolesByCode,
+                            Map<Long, Role> rolesById,
+                            List<Role> activeRoles,
+                            Map<String, Permission> permissionsByCode,
+                            Map<Long, Set<String>> permissionCodesByRoleId,
+                            Map<String, Integer> permissionIds,
+                            Map<String, long[]> permissionBitsByRoleCode,
+                            int bitsetLength,
+                            String permissionsVersion) {
+
+        static final Snapshot EMPTY = new Snapshot("", Map.of(), Map.of(), List.of(), Map.of(), Map.of(),
+                Map.of(), Map.of(), 0, "");
+    }
+}
@@ -0,0 +1,132 @@
+package com.screenengine.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory view of t_user.security_version.
+ * Tokens carry the version they were issued with; a token whose version is
+ * lower than the current one has been revoked. Users that were never bumped
+ * are not stored, so the map stays small.
+ * The map is loaded at startup (startup fails when it cannot be) and kept in
+ * step with bumps made by other nodes by polling rows whose updated_at moved.
+ * Local bumps are applied once their transaction commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityVersionRegistry {
+
+    private static final String ALL_VERSIONS = """
+        SELECT user_id, security_version, updated_at FROM t_user WHERE security_version > 0
+        """;
+
+    private static final String CHANGED_SINCE = ALL_VERSIONS + " AND updated_at >= ?";
+
+    private static final String BUMP = """
+        UPDATE t_user SET security_version = security_version + 1, updated_at = CURRENT_TIMESTAMP
+        WHERE user_id = ? RETURNING security_version
+        """;
+
+    /**
+     * updated_at is the start time of the writing transaction, so a row can become
+     * visible after newer ones; re-reading this window catches such late commits
+     */
+    private static final long OVERLAP_SECONDS = 300;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<Long, Integer> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark;
+
+    /**
+     * Load all versions; a failure aborts startup rather than accepting revoked tokens
+     */
+    @PostConstruct
+    public void init() {
+        load(null);
+        log.info("Loaded security versions for {} users", versions.size());
+    }
+
+    /**
+     * Pick up versions bumped by other nodes
+     */
+    @Scheduled(fixedDelayString = "${screen-engine.security.jwt.version-refresh-interval:5000}",
+            initialDelayString = "${screen-engine.security.jwt.version-refresh-interval:5000}")
+    public void refresh() {
+        try {
+            LocalDateTime since = watermark;
+            load(since != null ? since.minusSeconds(OVERLAP_SECONDS) : null);
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh user security versions: {}", ex.getMessage());
+        }
+    }
+
+    private void load(LocalDateTime since) {
+        LocalDateTime[] latest = {watermark};
+        RowCallbackHandler handler = rs -> {
+            versions.merge(rs.getLong("user_id"), rs.getInt("security_version"), Math::max);
+            LocalDateTime updatedAt = rs.getObject("updated_at", LocalDateTime.class);
+            if (updatedAt != null && (latest[0] == null || updatedAt.isAfter(latest[0]))) {
+                latest[0] = updatedAt;
+            }
+        };
+        if (since == null) {
+            jdbcTemplate.query(ALL_VERSIONS, handler);
+        } else {
+            jdbcTemplate.query(CHANGED_SINCE, handler, since);
+        }
+        watermark = latest[0];
+    }
+
+    /**
+     * Get the current security version of a user
+     */
+    public int currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Check whether a token issued with the given version is still valid
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+
+    /**
+     * Increment the security version of a user, revoking all tokens issued before.
+     * Inside a transaction the new version takes effect locally only after commit.
+     * updated_at is moved as well, since other nodes only poll rows whose updated_at changed.
+     */
+    public void bump(Long userId) {
+        Integer version = jdbcTemplate.queryForObject(BUMP, Integer.class, userId);
+        if (version == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, version);
+                }
+            });
+        } else {
+            apply(userId, version);
+        }
+    }
+
+    private void apply(Long userId, int version) {
+        versions.merge(userId, version, Math::max);
+        log.debug("Security version of user {} is now {}", userId, version);
+    }
+}
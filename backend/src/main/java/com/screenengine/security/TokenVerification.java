@@ -0,0 +1,57 @@
+package com.screenengine.security;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Outcome of verifying a JWT: either a verified token or the reason it was rejected.
+ * Failures are shared constants, so rejecting a token allocates nothing here.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TokenVerification {
+
+    public enum Status {
+        VALID,
+        EMPTY,
+        MALFORMED,
+        INVALID_SIGNATURE,
+        EXPIRED,
+        UNSUPPORTED
+    }
+
+    private static final TokenVerification EMPTY = new TokenVerification(Status.EMPTY, null);
+    private static final TokenVerification MALFORMED = new TokenVerification(Status.MALFORMED, null);
+    private static final TokenVerification INVALID_SIGNATURE = new TokenVerification(Status.INVALID_SIGNATURE, null);
+    private static final TokenVerification EXPIRED = new TokenVerification(Status.EXPIRED, null);
+    private static final TokenVerification UNSUPPORTED = new TokenVerification(Status.UNSUPPORTED, null);
+
+    private final Status status;
+    private final VerifiedToken token;
+
+    /**
+     * Create a successful verification
+     */
+    public static TokenVerification valid(VerifiedToken token) {
+        return new TokenVerification(Status.VALID, token);
+    }
+
+    /**
+     * Get the shared failure result for a status
+     */
+    public static TokenVerification failure(Status status) {
+        return switch (status) {
+            case EMPTY -> EMPTY;
+            case MALFORMED -> MALFORMED;
+            case INVALID_SIGNATURE -> INVALID_SIGNATURE;
+            case EXPIRED -> EXPIRED;
+            case UNSUPPORTED -> UNSUPPORTED;
+            case VALID -> throw new IllegalArgumentException("VALID is not a failure status");
+        };
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+}
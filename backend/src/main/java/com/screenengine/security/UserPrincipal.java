@@ -2,8 +2,10 @@ package com.screenengine.security;
 
 import com.screenengine.model.Role;
 import com.screenengine.model.User;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
+import lombok.With;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,23 +16,28 @@ import java.util.stream.Collectors;
 
 /**
  * UserDetails implementation for Spring Security.
- * Represents the authenticated user principal.
+ * Represents the authenticated user principal. Instances are immutable, since
+ * cached principals are shared by concurrent requests; use the with* copies.
+ * The permission bitset is copied on the way in and out.
  */
-@Data
-@AllArgsConstructor
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class UserPrincipal implements UserDetails {
 
-    private Long userId;
-    private String username;
-    private String email;
-    private String fullName;
-    private String password;
-    private Long fabrikaKod;
-    private Collection<? extends GrantedAuthority> authorities;
-    private boolean enabled;
-    private boolean accountNonExpired;
-    private boolean credentialsNonExpired;
-    private boolean accountNonLocked;
+    Long userId;
+    String username;
+    String email;
+    String fullName;
+    @With
+    String password;
+    Long fabrikaKod;
+    Collection<? extends GrantedAuthority> authorities;
+    boolean enabled;
+    boolean accountNonExpired;
+    boolean credentialsNonExpired;
+    boolean accountNonLocked;
+    int securityVersion;
+    long[] permissionBits;
 
     /**
      * Create UserPrincipal from User entity
@@ -38,7 +45,7 @@ public class UserPrincipal implements UserDetails {
     public static UserPrincipal create(User user, Set<Role> roles) {
         Collection<GrantedAuthority> authorities = roles.stream()
                 .map(role -> new SimpleGrantedAuthority(role.getRoleCode()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
 
         return new UserPrincipal(
                 user.getUserId(),
@@ -51,10 +58,58 @@ public class UserPrincipal implements UserDetails {
                 user.isEnabled(),
                 user.isAccountNonExpired(),
                 user.isCredentialsNonExpired(),
-                user.isAccountNonLocked()
+                user.isAccountNonLocked(),
+                user.getSecurityVersion() != null ? user.getSecurityVersion() : 0,
+                null
         );
     }
 
+    /**
+     * Create UserPrincipal from the claims of a verified token
+     */
+    public static UserPrincipal create(VerifiedToken token) {
+        return new UserPrincipal(
+                token.getUserId(),
+                token.getUsername(),
+                token.getEmail(),
+                token.getFullName(),
+                null,
+                token.getFabrikaKod(),
+                token.getAuthorities(),
+                Boolean.TRUE.equals(token.getEnabled()),
+                true,
+                true,
+                true,
+                token.getSecurityVersion() != null ? token.getSecurityVersion() : 0,
+                token.getPermissionBits()
+        );
+    }
+
+    /**
+     * Copy with the given permission bitset
+     */
+    public UserPrincipal withPermissionBits(long[] permissionBits) {
+        return new UserPrincipal(userId, username, email, fullName, password, fabrikaKod, authorities, enabled,
+                accountNonExpired, credentialsNonExpired, accountNonLocked, securityVersion,
+                permissionBits != null ? permissionBits.clone() : null);
+    }
+
+    /**
+     * Copy of the permission bitset, null when it was never compiled
+     */
+    public long[] getPermissionBits() {
+        return permissionBits != null ? permissionBits.clone() : null;
+    }
+
+    /**
+     * Check a permission by its dense catalog ID
+     */
+    public boolean hasPermission(int permissionId) {
+        long[] bits = permissionBits;
+        return permissionId >= 0 && bits != null && (permissionId >>> 6) < bits.length
+                && (bits[permissionId >>> 6] & (1L << permissionId)) != 0;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -0,0 +1,76 @@
+package com.screenengine.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have been verified.
+ * All claims are extracted once so callers never touch the raw token again.
+ * Verified tokens are cached and shared, so the permission bitset is only handed out as a copy.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class VerifiedToken {
+
+    String username;
+    Long userId;
+    String email;
+    String fullName;
+    Long fabrikaKod;
+    List<GrantedAuthority> authorities;
+    Boolean enabled;
+    Integer securityVersion;
+    long[] permissionBits;
+    String permissionsVersion;
+    Date issuedAt;
+    Date expiration;
+
+    /**
+     * Create a verified token from parsed claims
+     */
+    public static VerifiedToken from(Claims claims) {
+        List<?> roles = claims.get(JwtTokenProvider.CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles == null ? Collections.emptyList() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+
+        String permissions = claims.get(JwtTokenProvider.CLAIM_PERMISSIONS, String.class);
+
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class),
+                claims.get(JwtTokenProvider.CLAIM_EMAIL, String.class),
+                claims.get(JwtTokenProvider.CLAIM_FULL_NAME, String.class),
+                claims.get(JwtTokenProvider.CLAIM_FABRIKA_KOD, Long.class),
+                authorities,
+                claims.get(JwtTokenProvider.CLAIM_ENABLED, Boolean.class),
+                claims.get(JwtTokenProvider.CLAIM_SECURITY_VERSION, Integer.class),
+                permissions == null ? null : JwtTokenProvider.decodePermissionBits(permissions),
+                claims.get(JwtTokenProvider.CLAIM_PERMISSIONS_VERSION, String.class),
+                claims.getIssuedAt(),
+                claims.getExpiration()
+        );
+    }
+
+    /**
+     * Copy of the permission bitset claim, null when the token has none
+     */
+    public long[] getPermissionBits() {
+        return permissionBits != null ? permissionBits.clone() : null;
+    }
+
+    /**
+     * Check if the token carries every claim needed to rebuild the principal
+     */
+    public boolean isStateless() {
+        return userId != null && enabled != null && securityVersion != null;
+    }
+}
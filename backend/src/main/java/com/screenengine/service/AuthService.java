@@ -6,23 +6,28 @@ import com.screenengine.dto.LoginRequest;
 import com.screenengine.dto.RegisterRequest;
 import com.screenengine.model.Role;
 import com.screenengine.model.User;
-import com.screenengine.repository.RoleRepository;
-import com.screenengine.repository.UserRepository;
+import com.screenengine.security.CustomUserDetailsService;
+import com.screenengine.security.InvalidRefreshTokenException;
 import com.screenengine.security.JwtTokenProvider;
+import com.screenengine.security.LoginAttemptTracker;
+import com.screenengine.security.RoleCatalog;
 import com.screenengine.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -33,44 +38,106 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuthService {
 
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+    private static final String EMAIL_CONSTRAINT = "t_user_email_key";
+
+    private static final String INSERT_USER_WITH_DEFAULT_ROLE = """
+        WITH new_user AS (
+            INSERT INTO t_user (username, password, email, full_name, phone, active, locked,
+                                password_expired, failed_attempts, fabrika_kod, created_at, updated_at, created_by)
+            VALUES (?, ?, ?, ?, ?, 1, 0, 0, 0, ?, ?, ?, 'SYSTEM')
+            RETURNING user_id
+        )
+        INSERT INTO t_user_role (user_id, role_id, created_by)
+        SELECT user_id, ?, 'SYSTEM' FROM new_user
+        RETURNING user_id
+        """;
+
+    private static final String USERNAME_OR_EMAIL_TAKEN = """
+        SELECT EXISTS (SELECT 1 FROM t_user WHERE username = ?) AS username_taken,
+               EXISTS (SELECT 1 FROM t_user WHERE email = ?) AS email_taken
+        """;
+
     private final AuthenticationManager authenticationManager;
-    private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
     private final ScreenEngineProperties properties;
     private final JdbcTemplate jdbcTemplate;
+    private final LoginActivityRecorder loginActivityRecorder;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final RefreshTokenService refreshTokenService;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Authenticate user and generate JWT token
+     * Not transactional: no connection is held while the password is checked,
+     * and last_login is written behind by LoginActivityRecorder.
+     * Usernames or client IPs with too many recent failures are refused before
+     * any user lookup or password check.
      */
-    @Transactional
-    public AuthResponse login(LoginRequest loginRequest) {
+    public AuthResponse login(LoginRequest loginRequest, String clientIp) {
         log.info("Login attempt for username: {}", loginRequest.getUsername());
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()
-                )
-        );
+        loginAttemptTracker.checkAllowed(loginRequest.getUsername(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (BadCredentialsException e) {
+            loginAttemptTracker.recordFailure(loginRequest.getUsername(), clientIp);
+            loginActivityRecorder.recordFailure(loginRequest.getUsername());
+            throw e;
+        }
 
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
         // Update last login
-        jdbcTemplate.update(
-                "UPDATE t_user SET last_login = ?, failed_attempts = 0 WHERE user_id = ?",
-                LocalDateTime.now(), userPrincipal.getUserId()
-        );
+        loginAttemptTracker.recordSuccess(userPrincipal.getUsername());
+        loginActivityRecorder.recordLogin(userPrincipal.getUserId(), userPrincipal.getUsername());
+
+        log.info("User {} logged in successfully", loginRequest.getUsername());
+
+        return buildAuthResponse(userPrincipal, refreshTokenService.issue(userPrincipal.getUserId()));
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a rotated refresh token.
+     * The user is reloaded from the database, so disabled or locked accounts cannot refresh.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.IssuedToken rotated = refreshTokenService.rotate(refreshToken);
 
-        String jwt = tokenProvider.generateToken(authentication);
+        UserPrincipal userPrincipal = (UserPrincipal) customUserDetailsService.loadUserById(rotated.userId());
+        if (!userPrincipal.isEnabled() || !userPrincipal.isAccountNonLocked()) {
+            refreshTokenService.revoke(rotated.token());
+            throw new InvalidRefreshTokenException("User account is disabled or locked");
+        }
+
+        log.debug("Refreshed tokens for user {}", userPrincipal.getUsername());
+        return buildAuthResponse(userPrincipal, rotated.token());
+    }
 
-        List<String> roles = authentication.getAuthorities().stream()
+    /**
+     * Revoke the refresh token family of the current session
+     */
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    private AuthResponse buildAuthResponse(UserPrincipal userPrincipal, String refreshToken) {
+        String jwt = tokenProvider.generateToken(userPrincipal);
+
+        List<String> roles = userPrincipal.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
-        log.info("User {} logged in successfully", loginRequest.getUsername());
-
         // Get primary role (remove ROLE_ prefix for frontend)
         String primaryRole = roles.isEmpty() ? "USER" : roles.get(0).replace("ROLE_", "");
 
@@ -78,6 +145,8 @@ public class AuthService {
                 .token(jwt)
                 .tokenType("Bearer")
                 .expiresIn(properties.getSecurity().getJwt().getExpiration())
+                .refreshToken(refreshToken)
+                .refreshExpiresIn(refreshTokenService.getExpiration())
                 .user(AuthResponse.UserInfo.builder()
                         .userId(userPrincipal.getUserId())
                         .username(userPrincipal.getUsername())
@@ -92,57 +161,90 @@ public class AuthService {
 
     /**
      * Register new user
+     * Taken usernames and emails are refused by an index lookup before the
+     * password is hashed, so duplicate sign-ups cost no BCrypt time. The user,
+     * its default role and the first refresh token are written in one
+     * transaction, started after hashing so no connection waits on it; the
+     * t_user constraints still decide concurrent duplicates. The token is
+     * issued straight from the new principal instead of authenticating the
+     * password again.
      */
-    @Transactional
     public AuthResponse register(RegisterRequest registerRequest) {
         log.info("Registration attempt for username: {}", registerRequest.getUsername());
 
-        // Validate username
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
+        checkAvailable(registerRequest.getUsername(), registerRequest.getEmail());
+
+        String encodedPassword = passwordEncoder.encode(registerRequest.getPassword());
+        Long fabrikaKod = registerRequest.getFabrikaKod() != null ? registerRequest.getFabrikaKod() : 101L;
+        LocalDateTime now = LocalDateTime.now();
+        Role defaultRole = defaultRole();
+
+        record Created(Long userId, String refreshToken) {
+        }
+        Created created;
+        try {
+            created = transactionTemplate.execute(status -> {
+                Long id = jdbcTemplate.queryForObject(INSERT_USER_WITH_DEFAULT_ROLE, Long.class,
+                        registerRequest.getUsername(),
+                        encodedPassword,
+                        registerRequest.getEmail(),
+                        registerRequest.getFullName(),
+                        registerRequest.getPhone(),
+                        fabrikaKod,
+                        now,
+                        now,
+                        defaultRole.getRoleId());
+                return new Created(id, refreshTokenService.issue(id));
+            });
+        } catch (DuplicateKeyException e) {
+            String detail = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (detail.contains(EMAIL_CONSTRAINT)) {
+                throw new RuntimeException("Email is already registered");
+            }
             throw new RuntimeException("Username is already taken");
         }
 
-        // Validate email
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new RuntimeException("Email is already registered");
-        }
+        Long userId = created.userId();
+        log.info("User {} registered successfully", registerRequest.getUsername());
 
-        // Create new user
         User user = User.builder()
+                .userId(userId)
                 .username(registerRequest.getUsername())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
                 .email(registerRequest.getEmail())
                 .fullName(registerRequest.getFullName())
-                .phone(registerRequest.getPhone())
-                .fabrikaKod(registerRequest.getFabrikaKod() != null ? registerRequest.getFabrikaKod() : 101L)
+                .password(encodedPassword)
+                .fabrikaKod(fabrikaKod)
                 .active(1)
                 .locked(0)
                 .passwordExpired(0)
-                .failedAttempts(0)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .createdBy("SYSTEM")
+                .securityVersion(0)
                 .build();
+        UserPrincipal userPrincipal = UserPrincipal.create(user, Set.of(defaultRole));
+        userPrincipal = userPrincipal.withPermissionBits(roleCatalog.permissionBits(userPrincipal.getAuthorities()));
+        loginActivityRecorder.recordLogin(userId, userPrincipal.getUsername());
 
-        User savedUser = userRepository.save(user);
-
-        // Assign default role (ROLE_USER)
-        Role userRole = roleRepository.findByRoleCode("ROLE_USER")
-                .orElseThrow(() -> new RuntimeException("Default role not found"));
-
-        jdbcTemplate.update(
-                "INSERT INTO t_user_role (user_id, role_id, created_by) VALUES (?, ?, ?)",
-                savedUser.getUserId(), userRole.getRoleId(), "SYSTEM"
-        );
-
-        log.info("User {} registered successfully", registerRequest.getUsername());
+        return buildAuthResponse(userPrincipal, created.refreshToken());
+    }
 
-        // Auto-login after registration
-        LoginRequest loginRequest = new LoginRequest(
-                registerRequest.getUsername(),
-                registerRequest.getPassword()
-        );
+    /**
+     * Refuse a taken username or email without hashing the password
+     */
+    private void checkAvailable(String username, String email) {
+        jdbcTemplate.query(USERNAME_OR_EMAIL_TAKEN, rs -> {
+            if (rs.getBoolean("username_taken")) {
+                throw new RuntimeException("Username is already taken");
+            }
+            if (rs.getBoolean("email_taken")) {
+                throw new RuntimeException("Email is already registered");
+            }
+        }, username, email);
+    }
 
-        return login(loginRequest);
+    /**
+     * ID of the default role, from the role catalog
+     */
+    private Role defaultRole() {
+        return roleCatalog.findActiveByCode(DEFAULT_ROLE)
+                .orElseThrow(() -> new RuntimeException("Default role not found"));
     }
 }
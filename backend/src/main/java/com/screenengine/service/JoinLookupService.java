@@ -0,0 +1,169 @@
+package com.screenengine.service;
+
+import com.screenengine.config.DataSourceConfig;
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.model.ScreenColumn;
+import com.screenengine.sql.LookupQuery;
+import com.screenengine.sql.ParameterVector;
+import com.screenengine.sql.ScreenQueryCompiler;
+import com.screenengine.sql.SystemParameter;
+import com.screenengine.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves codes of JOIN columns to display names from their dimension tables.
+ * Instead of joining every dimension into the grid query, the codes of a batch
+ * of rows are looked up in a bounded cache and only the missing ones are read,
+ * with one IN / ANY query per dimension. Codes without a dimension row are
+ * cached as well, so they are not queried again until they expire. Entries are
+ * keyed by the dimension and the values of its ozellik_kolon2 condition
+ * parameters, so differently filtered lookups of one table never mix.
+ */
+@Slf4j
+@Service
+public class JoinLookupService implements MeterBinder {
+
+    private static final String NOT_FOUND = "\u0000";
+
+    private final ScreenQueryCompiler screenQueryCompiler;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean cacheEnabled;
+    private final BoundedTtlCache<LookupKey, String> names;
+    private final Map<String, LookupQuery> queries = new ConcurrentHashMap<>();
+
+    public JoinLookupService(ScreenQueryCompiler screenQueryCompiler,
+                             @Qualifier(DataSourceConfig.DATA_JDBC_TEMPLATE) JdbcTemplate jdbcTemplate,
+                             ScreenEngineProperties properties) {
+        this.screenQueryCompiler = screenQueryCompiler;
+        this.jdbcTemplate = jdbcTemplate;
+        ScreenEngineProperties.Cache cache = properties.getCache();
+        this.cacheEnabled = cache.isEnabled();
+        this.names = new BoundedTtlCache<>("join-lookups", cache.getLookupMaxSize(),
+                Duration.ofSeconds(cache.getLookupTtl()));
+    }
+
+    /**
+     * Check if a column carries enough join metadata to be resolved
+     */
+    public static boolean isLookup(ScreenColumn column) {
+        return column.getJoinTablo() != null && column.getJoinTabloDbKod() != null && column.getJoinTabloDbAd() != null;
+    }
+
+    /**
+     * Resolve the names of a batch of codes of one JOIN column
+     *
+     * @return name by code (as text); codes without a dimension row are absent
+     */
+    public Map<String, String> resolve(ScreenColumn column, Collection<?> codes, ParameterVector parameters) {
+        String dimension = column.getJoinTablo() + '|' + column.getJoinTabloDbKod() + '|'
+                + column.getJoinTabloDbAd() + '|' + column.getOzellikKolon2();
+        List<Object> conditionValues = conditionValues(lookupQuery(column, dimension, 1), parameters);
+
+        Map<String, String> resolved = new HashMap<>();
+        Map<String, Object> missing = new LinkedHashMap<>();
+        for (Object code : codes) {
+            if (code == null) {
+                continue;
+            }
+            String text = code.toString();
+            if (resolved.containsKey(text) || missing.containsKey(text)) {
+                continue;
+            }
+            String name = cacheEnabled ? names.get(new LookupKey(dimension, conditionValues, text)) : null;
+            if (name == null) {
+                missing.put(text, code);
+            } else if (!NOT_FOUND.equals(name)) {
+                resolved.put(text, name);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<Object> batch = new ArrayList<>(missing.values());
+            int batchSize = screenQueryCompiler.maxLookupBatch();
+            for (int from = 0; from < batch.size(); from += batchSize) {
+                List<Object> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+                fetch(lookupQuery(column, dimension, chunk.size()), chunk, conditionValues, resolved);
+            }
+            if (cacheEnabled) {
+                for (String code : missing.keySet()) {
+                    names.put(new LookupKey(dimension, conditionValues, code), resolved.getOrDefault(code, NOT_FOUND));
+                }
+            }
+            log.debug("Looked up {} codes of {}", missing.size(), column.getJoinTablo());
+        }
+        return resolved;
+    }
+
+    private LookupQuery lookupQuery(ScreenColumn column, String dimension, int codes) {
+        int placeholders = screenQueryCompiler.inListSize(codes);
+        return queries.computeIfAbsent(dimension + '#' + placeholders,
+                key -> screenQueryCompiler.compileLookup(column, placeholders));
+    }
+
+    private static List<Object> conditionValues(LookupQuery query, ParameterVector parameters) {
+        if (query.parameters().isEmpty()) {
+            return List.of();
+        }
+        List<Object> values = new ArrayList<>(query.parameters().size());
+        for (SystemParameter parameter : query.parameters()) {
+            values.add(parameters.get(parameter));
+        }
+        return values;
+    }
+
+    private void fetch(LookupQuery query, List<Object> codes, List<Object> conditionValues, Map<String, String> resolved) {
+        jdbcTemplate.query(query.sql(), ps -> {
+            int index = 1;
+            if (query.isArrayBound()) {
+                Array array = arrayOf(ps.getConnection(), codes);
+                ps.setArray(index++, array);
+            } else {
+                // Padding slots repeat the last code, which leaves the result unchanged
+                for (int i = 0; i < query.codePlaceholders(); i++) {
+                    ps.setObject(index++, codes.get(Math.min(i, codes.size() - 1)));
+                }
+            }
+            for (Object value : conditionValues) {
+                ps.setObject(index++, value);
+            }
+        }, (RowCallbackHandler) rs -> resolved.put(rs.getString(1), rs.getString(2)));
+    }
+
+    private static Array arrayOf(Connection connection, List<Object> codes) throws SQLException {
+        boolean integral = codes.stream().allMatch(code -> code instanceof Long || code instanceof Integer || code instanceof Short);
+        if (integral) {
+            return connection.createArrayOf("bigint", codes.stream().map(code -> ((Number) code).longValue()).toArray());
+        }
+        boolean numeric = codes.stream().allMatch(Number.class::isInstance);
+        if (numeric) {
+            return connection.createArrayOf("numeric", codes.toArray());
+        }
+        return connection.createArrayOf("varchar", codes.stream().map(Object::toString).toArray());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        names.bindTo(registry);
+    }
+
+    private record LookupKey(String dimension, List<Object> conditionValues, String code) {
+    }
+}
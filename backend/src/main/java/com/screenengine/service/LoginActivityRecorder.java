@@ -0,0 +1,214 @@
+package com.screenengine.service;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.security.PrincipalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for login bookkeeping (last_login, failed_attempts, locked).
+ * Logins only record the user in memory; repeated logins or failures of the
+ * same user coalesce into one pending row, and a background thread writes pending rows
+ * in one JDBC batch on a short interval or once the batch size is reached.
+ * The buffer is drained on shutdown.
+ */
+@Slf4j
+@Component
+public class LoginActivityRecorder implements MeterBinder {
+
+    private static final String UPDATE_LOGIN = """
+        UPDATE t_user SET last_login = ?, failed_attempts = 0 WHERE user_id = ?
+        """;
+
+    private static final String UPDATE_FAILURES = """
+        UPDATE t_user
+        SET failed_attempts = failed_attempts + ?,
+            locked = CASE WHEN ? > 0 AND failed_attempts + ? >= ? THEN 1 ELSE locked END
+        WHERE username = ?
+        """;
+
+    private static final String LOCKED_USER_IDS = """
+        SELECT user_id FROM t_user WHERE username = ANY(?) AND locked = 1
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrincipalCache principalCache;
+    private final int batchSize;
+    private final int lockThreshold;
+    private final Map<Long, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pendingFailures = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+
+    private Counter flushed;
+
+    public LoginActivityRecorder(JdbcTemplate jdbcTemplate, PrincipalCache principalCache,
+                                 ScreenEngineProperties properties) {
+        ScreenEngineProperties.LoginActivity config = properties.getLoginActivity();
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.principalCache = principalCache;
+        this.batchSize = config.getBatchSize();
+        this.lockThreshold = properties.getLoginAttempts().getLockThreshold();
+        this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("login-activity-"));
+        this.executor.scheduleWithFixedDelay(this::flushSafely,
+                config.getFlushInterval(), config.getFlushInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record a successful login: set last_login and reset failed_attempts.
+     * Failures of the same user still waiting to be written are discarded.
+     */
+    public void recordLogin(Long userId, String username) {
+        pendingFailures.remove(username);
+        pendingLogins.merge(userId, LocalDateTime.now(), (previous, current) -> current.isAfter(previous) ? current : previous);
+        requestFlushIfFull();
+    }
+
+    /**
+     * Record a failed login: increment failed_attempts and lock the account
+     * once lock-threshold is reached (when enabled). Unknown usernames update nothing.
+     */
+    public void recordFailure(String username) {
+        pendingFailures.merge(username, 1, Integer::sum);
+        requestFlushIfFull();
+    }
+
+    private void requestFlushIfFull() {
+        if (pendingLogins.size() + pendingFailures.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flushSafely);
+            } catch (RejectedExecutionException ex) {
+                // Shutting down; the final drain picks the entry up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Write all pending updates in batches, logins first.
+     * Rows are sorted by key so concurrent writers lock rows in the same order.
+     */
+    synchronized void flush() {
+        flushRequested.set(false);
+        flushLogins();
+        flushFailures();
+    }
+
+    private void flushLogins() {
+        List<Map.Entry<Long, LocalDateTime>> batch = drain(pendingLogins);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LOGIN, batch, batchSize, (ps, entry) -> {
+                ps.setObject(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+            });
+            if (flushed != null) {
+                flushed.increment(batch.size());
+            }
+            log.debug("Flushed login activity for {} users", batch.size());
+        } catch (RuntimeException ex) {
+            // Put entries back unless a newer login was recorded meanwhile
+            batch.forEach(entry -> pendingLogins.merge(entry.getKey(), entry.getValue(),
+                    (current, failed) -> current.isAfter(failed) ? current : failed));
+            throw ex;
+        }
+    }
+
+    private void flushFailures() {
+        List<Map.Entry<String, Integer>> batch = drain(pendingFailures);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_FAILURES, batch, batchSize, (ps, entry) -> {
+                ps.setInt(1, entry.getValue());
+                ps.setInt(2, lockThreshold);
+                ps.setInt(3, entry.getValue());
+                ps.setInt(4, lockThreshold);
+                ps.setString(5, entry.getKey());
+            });
+            if (flushed != null) {
+                flushed.increment(batch.size());
+            }
+            log.debug("Flushed failed login attempts for {} usernames", batch.size());
+        } catch (RuntimeException ex) {
+            batch.forEach(entry -> pendingFailures.merge(entry.getKey(), entry.getValue(), Integer::sum));
+            throw ex;
+        }
+
+        if (lockThreshold > 0) {
+            // Cached principals must see the new locked flag on the next login
+            String[] usernames = batch.stream().map(Map.Entry::getKey).toArray(String[]::new);
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(LOCKED_USER_IDS);
+                ps.setArray(1, con.createArrayOf("varchar", usernames));
+                return ps;
+            }, (RowCallbackHandler) rs -> principalCache.invalidate(rs.getLong("user_id")));
+        }
+    }
+
+    private static <K extends Comparable<K>, V> List<Map.Entry<K, V>> drain(Map<K, V> pending) {
+        List<Map.Entry<K, V>> batch = new ArrayList<>(pending.size());
+        for (K key : pending.keySet()) {
+            V value = pending.remove(key);
+            if (value != null) {
+                batch.add(Map.entry(key, value));
+            }
+        }
+        batch.sort(Map.Entry.comparingByKey());
+        return batch;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush login activity, {} entries pending: {}",
+                    pendingLogins.size() + pendingFailures.size(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("login.activity.pending", this, recorder -> recorder.pendingLogins.size() + recorder.pendingFailures.size())
+                .description("Login activity entries not yet written to the database")
+                .register(registry);
+        flushed = Counter.builder("login.activity.flushed")
+                .description("Login activity rows written by the write-behind buffer")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Login activity flusher did not stop in time");
+        }
+        flushSafely();
+    }
+}
@@ -0,0 +1,174 @@
+package com.screenengine.service;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.security.InvalidRefreshTokenException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues, rotates and revokes refresh tokens.
+ * Only the SHA-256 digest of a token is stored, so a lookup is a single probe
+ * on the unique token index and a database leak exposes no usable tokens.
+ * Every refresh replaces the token with a new one of the same family; presenting
+ * an already rotated token revokes the whole family.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final String INSERT_TOKEN = """
+        INSERT INTO t_refresh_token (user_id, token, family_id, expires_at, created_at, revoked)
+        VALUES (?, ?, ?, ?, ?, 0)
+        """;
+
+    private static final String FIND_TOKEN_FOR_UPDATE = """
+        SELECT token_id, user_id, family_id, expires_at, revoked, rotated_at
+        FROM t_refresh_token WHERE token = ? FOR UPDATE
+        """;
+
+    private static final String PURGE_EXPIRED = """
+        DELETE FROM t_refresh_token WHERE token_id IN (
+            SELECT token_id FROM t_refresh_token WHERE expires_at < ? ORDER BY expires_at LIMIT ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScreenEngineProperties properties;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * Issued refresh token together with its owner
+     */
+    public record IssuedToken(Long userId, String token) {
+    }
+
+    /**
+     * Issue the first token of a new family, e.g. after a login
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return insert(userId, UUID.randomUUID());
+    }
+
+    /**
+     * Exchange a refresh token for a new one of the same family.
+     * The row is locked, so two concurrent refreshes with the same token cannot both succeed.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public IssuedToken rotate(String rawToken) {
+        List<StoredToken> rows = jdbcTemplate.query(FIND_TOKEN_FOR_UPDATE, (rs, rowNum) -> new StoredToken(
+                rs.getLong("token_id"),
+                rs.getLong("user_id"),
+                rs.getObject("family_id", UUID.class),
+                rs.getObject("expires_at", LocalDateTime.class),
+                rs.getInt("revoked") == 1,
+                rs.getObject("rotated_at", LocalDateTime.class) != null
+        ), digest(rawToken));
+
+        if (rows.isEmpty()) {
+            throw new InvalidRefreshTokenException("Unknown refresh token");
+        }
+        StoredToken stored = rows.get(0);
+
+        if (stored.revoked()) {
+            if (stored.rotated()) {
+                // A rotated token came back: it was copied, so nothing in the family can be trusted
+                int revoked = revokeFamily(stored.familyId());
+                log.warn("Refresh token reuse detected for user {}, revoked {} tokens of family {}",
+                        stored.userId(), revoked, stored.familyId());
+            }
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+        if (stored.expiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        jdbcTemplate.update("UPDATE t_refresh_token SET revoked = 1, rotated_at = ? WHERE token_id = ?",
+                LocalDateTime.now(), stored.tokenId());
+        return new IssuedToken(stored.userId(), insert(stored.userId(), stored.familyId()));
+    }
+
+    /**
+     * Revoke the family of the given token, e.g. on logout. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        jdbcTemplate.update("""
+                UPDATE t_refresh_token SET revoked = 1
+                WHERE family_id = (SELECT family_id FROM t_refresh_token WHERE token = ?) AND revoked = 0
+                """, digest(rawToken));
+    }
+
+    /**
+     * Delete expired tokens in bounded batches, each in its own short transaction.
+     * Walks idx_refresh_token_expires, so every batch touches only the rows it deletes.
+     */
+    @Scheduled(fixedDelayString = "${screen-engine.security.refresh-token.purge-interval:3600000}",
+            initialDelayString = "${screen-engine.security.refresh-token.purge-interval:3600000}")
+    public void purgeExpired() {
+        int batchSize = properties.getSecurity().getRefreshToken().getPurgeBatchSize();
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_EXPIRED, now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+    }
+
+    /**
+     * Refresh token lifetime in milliseconds
+     */
+    public long getExpiration() {
+        return properties.getSecurity().getRefreshToken().getExpiration();
+    }
+
+    private String insert(Long userId, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(INSERT_TOKEN, userId, digest(rawToken), familyId,
+                now.plus(Duration.ofMillis(getExpiration())), now);
+        return rawToken;
+    }
+
+    private int revokeFamily(UUID familyId) {
+        return jdbcTemplate.update("UPDATE t_refresh_token SET revoked = 1 WHERE family_id = ? AND revoked = 0", familyId);
+    }
+
+    private static String digest(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private record StoredToken(long tokenId, long userId, UUID familyId, LocalDateTime expiresAt,
+                               boolean revoked, boolean rotated) {
+    }
+}
@@ -0,0 +1,303 @@
+package com.screenengine.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screenengine.config.DataSourceConfig;
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.exception.ResourceNotFoundException;
+import com.screenengine.model.ColumnType;
+import com.screenengine.model.ScreenColumn;
+import com.screenengine.model.ScreenDefinition;
+import com.screenengine.model.ScreenTable;
+import com.screenengine.security.UserPrincipal;
+import com.screenengine.sql.KeysetCursor;
+import com.screenengine.sql.ParameterVector;
+import com.screenengine.sql.QueryTemplate;
+import com.screenengine.sql.ScreenQueryCompiler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Runs screen data queries and streams the rows as JSON.
+ * Statements are forward-only and read-only with a bounded fetch size, so rows
+ * are written to the response while the cursor advances and memory use does not
+ * grow with the result. sql.max-results caps the rows and sql.query-timeout the
+ * execution time of every statement.
+ * When a page size or cursor is given the query is keyset-paginated: the sort is
+ * completed with the table's key column and each page continues strictly after
+ * the sort key of the previous page's last row, so deep pages cost the same as the first.
+ * JOIN columns are not joined into the query; their names are resolved per
+ * batch of rows through {@link JoinLookupService}. Queries use the data
+ * datasource (see {@link DataSourceConfig}).
+ */
+@Slf4j
+@Service
+public class ScreenDataService {
+
+    private final ScreenDefinitionService screenDefinitionService;
+    private final ScreenQueryCompiler screenQueryCompiler;
+    private final JoinLookupService joinLookupService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ScreenEngineProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ParameterVector defaultParameters;
+
+    public static final String PARAM_SORT = "sort";
+    public static final String PARAM_SIZE = "size";
+    public static final String PARAM_CURSOR = "cursor";
+    public static final String NAME_SUFFIX = "_ad";
+
+    public ScreenDataService(ScreenDefinitionService screenDefinitionService, ScreenQueryCompiler screenQueryCompiler,
+                             JoinLookupService joinLookupService,
+                             @Qualifier(DataSourceConfig.DATA_JDBC_TEMPLATE) JdbcTemplate jdbcTemplate,
+                             ScreenEngineProperties properties, ObjectMapper objectMapper) {
+        this.screenDefinitionService = screenDefinitionService;
+        this.screenQueryCompiler = screenQueryCompiler;
+        this.joinLookupService = joinLookupService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.defaultParameters = ParameterVector.defaults(properties.getParameters());
+    }
+
+    /**
+     * Screen query ready to execute; size is 0 and cursor null when not paged
+     */
+    public record ScreenQuery(ScreenDefinition screen, QueryTemplate template, Map<String, String> filters,
+                              ParameterVector parameters, int size, Object[] cursor) {
+
+        public boolean isPaged() {
+            return size > 0;
+        }
+    }
+
+    /**
+     * Resolve the screen and compile its query.
+     * Request parameters other than sort, size and cursor are filters. Runs
+     * before the response is committed, so unknown screens, invalid filters and
+     * stale cursors still produce regular error responses. System parameters
+     * such as :FACTORY take the user's values, falling back to the global ones.
+     */
+    public ScreenQuery prepare(String ekranKod, Map<String, String> requestParams, UserPrincipal user) {
+        ScreenDefinition screen = screenDefinitionService.getScreen(ekranKod);
+        ScreenTable table = screen.getMainTable();
+        if (!screen.isActive() || table == null) {
+            throw new ResourceNotFoundException("Screen not found: " + ekranKod);
+        }
+        checkAccess(screen, user);
+
+        Map<String, String> filters = new HashMap<>(requestParams);
+        String sort = filters.remove(PARAM_SORT);
+        String size = filters.remove(PARAM_SIZE);
+        String cursor = filters.remove(PARAM_CURSOR);
+        boolean paged = size != null || cursor != null;
+        boolean afterCursor = cursor != null && !cursor.isBlank();
+
+        QueryTemplate template = screenQueryCompiler.compile(screen, table, filters,
+                screenQueryCompiler.parseSort(table, sort), paged, afterCursor);
+        Object[] cursorValues = afterCursor
+                ? KeysetCursor.decode(template.getSortSignature(), cursor, template.getSortKeys())
+                : null;
+        ParameterVector parameters = user != null
+                ? defaultParameters.forUser(user.getFabrikaKod(), user.getUsername())
+                : defaultParameters;
+        return new ScreenQuery(screen, template, filters, parameters,
+                paged ? pageSize(size) : 0, cursorValues);
+    }
+
+    /**
+     * Enforce the screen's factory and its t_kul_ekran_yetki role grants before any query is compiled
+     */
+    private static void checkAccess(ScreenDefinition screen, UserPrincipal user) {
+        List<String> roleCodes = user != null
+                ? user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList()
+                : List.of();
+        Long fabrikaKod = user != null ? user.getFabrikaKod() : null;
+        if (!screen.isAccessibleBy(roleCodes, fabrikaKod)) {
+            throw new AccessDeniedException("Not allowed to use screen: " + screen.getEkranKod());
+        }
+    }
+
+    private int pageSize(String size) {
+        ScreenEngineProperties.Sql sql = properties.getSql();
+        if (size == null || size.isBlank()) {
+            return sql.getPageSize();
+        }
+        try {
+            int value = Integer.parseInt(size.trim());
+            if (value < 1 || value > sql.getMaxResults()) {
+                throw new IllegalArgumentException("Page size must be between 1 and " + sql.getMaxResults());
+            }
+            return value;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid page size: " + size);
+        }
+    }
+
+    /**
+     * Execute a prepared query and write {"success":true,"data":[...],"count":n,"truncated":b},
+     * or for pages {"success":true,"data":[...],"count":n,"hasMore":b,"nextCursor":"..."}.
+     * Runs in a read-only transaction so PostgreSQL keeps the cursor open between fetches.
+     */
+    @Transactional(transactionManager = DataSourceConfig.DATA_TRANSACTION_MANAGER, readOnly = true)
+    public void stream(ScreenQuery query, OutputStream out) throws IOException {
+        ScreenEngineProperties.Sql sql = properties.getSql();
+        int maxResults = query.isPaged() ? query.size() : sql.getMaxResults();
+        QueryTemplate template = query.template();
+        int[] keyIndexes = template.getSortKeyIndexes();
+        Object[] lastKey = new Object[keyIndexes.length];
+        long started = System.currentTimeMillis();
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeArrayFieldStart("data");
+
+            int[] count = {0};
+            boolean truncated = Boolean.TRUE.equals(jdbcTemplate.execute(con -> {
+                PreparedStatement ps = con.prepareStatement(template.getSql(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(sql.getFetchSize());
+                ps.setQueryTimeout(sql.getQueryTimeout());
+                // One extra row tells whether the result was cut off or another page follows
+                ps.setMaxRows(maxResults + 1);
+                template.bind(ps, query.filters(), query.parameters(), query.cursor(), maxResults + 1);
+                return ps;
+            }, (PreparedStatement ps) -> {
+                List<ScreenColumn> columns = template.getColumns();
+                int[] lookupIndexes = lookupIndexes(columns);
+                // Rows with lookup columns are resolved and written one fetch-sized batch at a time
+                List<Object[]> batch = lookupIndexes.length > 0 ? new ArrayList<>(sql.getFetchSize()) : null;
+                try (ResultSet rs = ps.executeQuery()) {
+                    boolean more = false;
+                    while (rs.next()) {
+                        if (count[0] == maxResults) {
+                            more = true;
+                            break;
+                        }
+                        if (batch == null) {
+                            writeRow(json, columns, rs);
+                        } else {
+                            batch.add(readRow(columns, rs));
+                            if (batch.size() == sql.getFetchSize()) {
+                                writeBatch(json, columns, lookupIndexes, batch, query.parameters());
+                            }
+                        }
+                        if (query.isPaged()) {
+                            for (int i = 0; i < keyIndexes.length; i++) {
+                                lastKey[i] = QueryTemplate.readValue(rs, keyIndexes[i], template.getSortKeys().get(i).column());
+                            }
+                        }
+                        count[0]++;
+                    }
+                    if (batch != null) {
+                        writeBatch(json, columns, lookupIndexes, batch, query.parameters());
+                    }
+                    return more;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+
+            json.writeEndArray();
+            json.writeNumberField("count", count[0]);
+            if (query.isPaged()) {
+                json.writeBooleanField("hasMore", truncated);
+                if (truncated) {
+                    json.writeStringField("nextCursor", KeysetCursor.encode(template.getSortSignature(), lastKey));
+                }
+            } else {
+                json.writeBooleanField("truncated", truncated);
+            }
+            json.writeEndObject();
+
+            log.debug("Streamed {} rows of {} in {} ms", count[0], query.screen().getEkranKod(),
+                    System.currentTimeMillis() - started);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static int[] lookupIndexes(List<ScreenColumn> columns) {
+        return IntStream.range(0, columns.size())
+                .filter(i -> columns.get(i).getTipi() == ColumnType.JOIN && JoinLookupService.isLookup(columns.get(i)))
+                .toArray();
+    }
+
+    /**
+     * Resolve the lookup names of a batch of rows and write them.
+     * Each JOIN column costs at most one lookup query per batch, for the codes not yet cached.
+     * The name is written next to the code as db_kolon + "_ad".
+     */
+    private void writeBatch(JsonGenerator json, List<ScreenColumn> columns, int[] lookupIndexes,
+                            List<Object[]> batch, ParameterVector parameters) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Map<String, String>> names = new ArrayList<>(lookupIndexes.length);
+        for (int index : lookupIndexes) {
+            List<Object> codes = new ArrayList<>(batch.size());
+            for (Object[] row : batch) {
+                codes.add(row[index]);
+            }
+            names.add(joinLookupService.resolve(columns.get(index), codes, parameters));
+        }
+
+        for (Object[] row : batch) {
+            json.writeStartObject();
+            int lookup = 0;
+            for (int i = 0; i < columns.size(); i++) {
+                String field = columns.get(i).getDbKolon();
+                json.writeObjectField(field, row[i]);
+                if (lookup < lookupIndexes.length && lookupIndexes[lookup] == i) {
+                    Object code = row[i];
+                    json.writeStringField(field + NAME_SUFFIX, code != null ? names.get(lookup).get(code.toString()) : null);
+                    lookup++;
+                }
+            }
+            json.writeEndObject();
+        }
+        batch.clear();
+    }
+
+    /**
+     * Read one row with the getter of each column type
+     */
+    private static Object[] readRow(List<ScreenColumn> columns, ResultSet rs) throws SQLException {
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = QueryTemplate.readValue(rs, i + 1, columns.get(i));
+        }
+        return row;
+    }
+
+    /**
+     * Write one row keyed by db_kolon, reading each value with the getter of its column type
+     */
+    private static void writeRow(JsonGenerator json, List<ScreenColumn> columns, ResultSet rs) throws SQLException, IOException {
+        json.writeStartObject();
+        for (int i = 0; i < columns.size(); i++) {
+            ScreenColumn column = columns.get(i);
+            json.writeObjectField(column.getDbKolon(), QueryTemplate.readValue(rs, i + 1, column));
+        }
+        json.writeEndObject();
+    }
+}
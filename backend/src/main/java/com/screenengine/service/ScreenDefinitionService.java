@@ -0,0 +1,92 @@
+package com.screenengine.service;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.exception.ResourceNotFoundException;
+import com.screenengine.model.ScreenDefinition;
+import com.screenengine.repository.ScreenMetadataRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves compiled screen definitions.
+ * Definitions are cached per ekran_kod. A cached definition is served as is for
+ * screen-check-interval milliseconds; after that a single version query decides
+ * whether it is still current or must be reloaded, so metadata edits show up
+ * without a restart and unchanged screens never re-read their columns.
+ */
+@Slf4j
+@Service
+public class ScreenDefinitionService implements MeterBinder {
+
+    private final ScreenMetadataRepository screenMetadataRepository;
+    private final boolean cacheEnabled;
+    private final long checkIntervalMillis;
+    private final Map<String, CachedScreen> screens = new ConcurrentHashMap<>();
+
+    public ScreenDefinitionService(ScreenMetadataRepository screenMetadataRepository, ScreenEngineProperties properties) {
+        this.screenMetadataRepository = screenMetadataRepository;
+        this.cacheEnabled = properties.getCache().isEnabled();
+        this.checkIntervalMillis = properties.getCache().getScreenCheckInterval();
+    }
+
+    /**
+     * Get a screen definition by code
+     */
+    public ScreenDefinition getScreen(String ekranKod) {
+        return findScreen(ekranKod)
+                .orElseThrow(() -> new ResourceNotFoundException("Screen not found: " + ekranKod));
+    }
+
+    /**
+     * Find a screen definition by code, from the cache when it is still current
+     */
+    public Optional<ScreenDefinition> findScreen(String ekranKod) {
+        if (!cacheEnabled) {
+            return screenMetadataRepository.findByEkranKod(ekranKod);
+        }
+
+        long now = System.currentTimeMillis();
+        CachedScreen cached = screens.get(ekranKod);
+        if (cached != null && now < cached.checkAfter) {
+            return Optional.of(cached.definition);
+        }
+
+        if (cached != null) {
+            Optional<String> version = screenMetadataRepository.findVersion(ekranKod);
+            if (version.isEmpty()) {
+                screens.remove(ekranKod, cached);
+                return Optional.empty();
+            }
+            if (version.get().equals(cached.definition.getVersion())) {
+                screens.put(ekranKod, new CachedScreen(cached.definition, now + checkIntervalMillis));
+                return Optional.of(cached.definition);
+            }
+            log.info("Screen {} changed, reloading definition", ekranKod);
+        }
+
+        Optional<ScreenDefinition> loaded = screenMetadataRepository.findByEkranKod(ekranKod);
+        loaded.ifPresent(definition -> screens.put(ekranKod, new CachedScreen(definition, now + checkIntervalMillis)));
+        return loaded;
+    }
+
+    /**
+     * Drop a cached definition, e.g. after editing its metadata
+     */
+    public void invalidate(String ekranKod) {
+        screens.remove(ekranKod);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registry.gauge("screen.definitions.cached", screens, Map::size);
+    }
+
+    private record CachedScreen(ScreenDefinition definition, long checkAfter) {
+    }
+}
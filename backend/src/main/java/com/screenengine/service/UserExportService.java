@@ -0,0 +1,135 @@
+package com.screenengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.screenengine.dto.UserDTO;
+import com.screenengine.dto.UserFileFormat;
+import com.screenengine.repository.UserQueryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams the user table to an output stream, one row at a time.
+ * Rows come straight from the database cursor and are written as soon as
+ * they are read, so memory use does not grow with the number of users.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER =
+            "userId,username,email,fullName,fabrikaKod,roles,status,createdAt,updatedAt\n";
+
+    private final UserQueryRepository userQueryRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write all users in the given format.
+     * Runs in a read-only transaction so PostgreSQL keeps the cursor open.
+     */
+    @Transactional(readOnly = true)
+    public void export(UserFileFormat format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long[] count = {0};
+
+        try {
+            if (format == UserFileFormat.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+                writer.write(CSV_HEADER);
+                userQueryRepository.streamAllWithRoles(user -> {
+                    writeCsvRow(writer, user);
+                    count[0]++;
+                });
+                writer.flush();
+            } else {
+                try (SequenceWriter writer = objectMapper.writerFor(UserDTO.class)
+                        .without(SerializationFeature.INDENT_OUTPUT)
+                        .withRootValueSeparator("\n")
+                        .writeValues(out)) {
+                    userQueryRepository.streamAllWithRoles(user -> {
+                        try {
+                            writer.write(user);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                        count[0]++;
+                    });
+                }
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        log.info("Exported {} users as {} in {} ms", count[0], format, System.currentTimeMillis() - started);
+    }
+
+    private static void writeCsvRow(Writer writer, UserDTO user) {
+        try {
+            writer.write(String.valueOf(user.getUserId()));
+            writer.write(',');
+            writeCsvValue(writer, user.getUsername());
+            writer.write(',');
+            writeCsvValue(writer, user.getEmail());
+            writer.write(',');
+            writeCsvValue(writer, user.getFullName());
+            writer.write(',');
+            writeCsvValue(writer, user.getFabrikaKod() != null ? user.getFabrikaKod().toString() : null);
+            writer.write(',');
+            writeCsvValue(writer, String.join("|", user.getRoles()));
+            writer.write(',');
+            writeCsvValue(writer, user.getStatus());
+            writer.write(',');
+            writeCsvValue(writer, user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
+            writer.write(',');
+            writeCsvValue(writer, user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null);
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Write a CSV field, quoting it when it contains a delimiter, quote or line break.
+     * A field that a spreadsheet would evaluate as a formula is prefixed with an
+     * apostrophe and quoted, so it is shown as text.
+     */
+    static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean formula = !value.isEmpty() && isFormulaTrigger(value.charAt(0));
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean isFormulaTrigger(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
@@ -0,0 +1,351 @@
+package com.screenengine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.dto.UserFileFormat;
+import com.screenengine.dto.UserImportResult;
+import com.screenengine.dto.UserImportRow;
+import com.screenengine.model.Role;
+import com.screenengine.security.PasswordHashingPool;
+import com.screenengine.security.RoleCatalog;
+import com.screenengine.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of users from a CSV or JSON stream.
+ * Rows are read incrementally and processed in chunks: validation and
+ * duplicate checks take one query per chunk, passwords are hashed on the
+ * bounded hashing pool, and inserts go out as JDBC batches in one
+ * transaction per chunk. A failing chunk is retried row by row, so a bad
+ * row is reported without aborting the rest of the import.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    private static final long DEFAULT_FABRIKA_KOD = 101L;
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+
+    private static final String INSERT_USER = """
+        INSERT INTO t_user (username, password, email, full_name, phone, active, locked,
+                            password_expired, failed_attempts, fabrika_kod, created_at, updated_at, created_by)
+        VALUES (?, ?, ?, ?, ?, 1, 0, 0, 0, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_USER_ROLES = """
+        INSERT INTO t_user_role (user_id, role_id, created_by)
+        SELECT user_id, ?, ? FROM t_user WHERE username = ANY(?)
+        """;
+
+    private static final String EXISTING_USERS = """
+        SELECT username, email FROM t_user WHERE username = ANY(?) OR email = ANY(?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoleCatalog roleCatalog;
+    private final PasswordHashingPool passwordHashingPool;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ScreenEngineProperties properties;
+
+    /**
+     * Import all users of the stream, returning per-row errors
+     */
+    public UserImportResult importUsers(InputStream in, UserFileFormat format, String importedBy) {
+        long started = System.currentTimeMillis();
+        int batchSize = properties.getUserImport().getBatchSize();
+        UserImportResult result = new UserImportResult();
+
+        Map<String, Long> roleIds = new HashMap<>();
+        for (Role role : roleCatalog.findAllActive()) {
+            roleIds.put(role.getRoleCode(), role.getRoleId());
+        }
+
+        List<ImportLine> chunk = new ArrayList<>(batchSize);
+        try {
+            RowSource rows = format == UserFileFormat.CSV ? csvRows(in) : jsonRows(in);
+            ImportLine line;
+            while ((line = rows.next()) != null) {
+                chunk.add(line);
+                if (chunk.size() == batchSize) {
+                    processChunk(chunk, roleIds, importedBy, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("User import stopped on malformed input: {}", ex.getMessage());
+            addError(result, result.getTotal() + chunk.size() + 1, null, "Malformed input: " + ex.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, roleIds, importedBy, result);
+        }
+
+        log.info("Imported {} of {} users ({} failed) in {} ms",
+                result.getImported(), result.getTotal(), result.getFailed(), System.currentTimeMillis() - started);
+        return result;
+    }
+
+    private void processChunk(List<ImportLine> chunk, Map<String, Long> roleIds, String importedBy,
+                              UserImportResult result) {
+        result.setTotal(result.getTotal() + chunk.size());
+
+        // Validate rows and drop duplicates within the chunk
+        List<ImportLine> valid = new ArrayList<>(chunk.size());
+        List<Long> validRoleIds = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (ImportLine line : chunk) {
+            String error = line.error() != null ? line.error() : validate(line.row());
+            Long roleId = error == null ? roleIds.get(roleCode(line.row())) : null;
+            if (error == null && roleId == null) {
+                error = "Role not found: " + line.row().getRole();
+            }
+            if (error == null && !usernames.add(line.row().getUsername())) {
+                error = "Duplicate username in import";
+            }
+            if (error == null && !emails.add(line.row().getEmail())) {
+                error = "Duplicate email in import";
+            }
+
+            if (error != null) {
+                addError(result, line.line(), line.row() != null ? line.row().getUsername() : null, error);
+            } else {
+                valid.add(line);
+                validRoleIds.add(roleId);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Drop rows that clash with existing users using a single query
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXISTING_USERS);
+            ps.setArray(1, con.createArrayOf("varchar", usernames.toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", emails.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            existingUsernames.add(rs.getString("username"));
+            existingEmails.add(rs.getString("email"));
+        });
+
+        List<PendingUser> pending = new ArrayList<>(valid.size());
+        List<String> passwords = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            UserImportRow row = valid.get(i).row();
+            if (existingUsernames.contains(row.getUsername())) {
+                addError(result, valid.get(i).line(), row.getUsername(), "Username is already taken");
+            } else if (existingEmails.contains(row.getEmail())) {
+                addError(result, valid.get(i).line(), row.getUsername(), "Email is already registered");
+            } else {
+                pending.add(new PendingUser(valid.get(i).line(), row, validRoleIds.get(i), null));
+                passwords.add(row.getPassword());
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<String> encoded = passwordHashingPool.encodeAll(passwords);
+        for (int i = 0; i < pending.size(); i++) {
+            pending.set(i, pending.get(i).withPassword(encoded.get(i)));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(pending, importedBy));
+            result.setImported(result.getImported() + pending.size());
+        } catch (DataAccessException ex) {
+            log.debug("Batch insert failed, retrying {} rows one by one: {}", pending.size(), ex.getMessage());
+            for (PendingUser user : pending) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(user), importedBy));
+                    result.setImported(result.getImported() + 1);
+                } catch (DuplicateKeyException dup) {
+                    addError(result, user.line(), user.row().getUsername(), "Username or email already exists");
+                } catch (DataAccessException rowEx) {
+                    addError(result, user.line(), user.row().getUsername(), rowEx.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert users with one batched statement and their roles with one statement per role
+     */
+    private void insert(List<PendingUser> users, String importedBy) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (ps, user) -> {
+            UserImportRow row = user.row();
+            ps.setString(1, row.getUsername());
+            ps.setString(2, user.encodedPassword());
+            ps.setString(3, row.getEmail());
+            ps.setString(4, row.getFullName());
+            ps.setString(5, row.getPhone());
+            ps.setLong(6, row.getFabrikaKod() != null ? row.getFabrikaKod() : DEFAULT_FABRIKA_KOD);
+            ps.setObject(7, now);
+            ps.setObject(8, now);
+            ps.setString(9, importedBy);
+        });
+
+        Map<Long, List<String>> usernamesByRole = new HashMap<>();
+        for (PendingUser user : users) {
+            usernamesByRole.computeIfAbsent(user.roleId(), id -> new ArrayList<>()).add(user.row().getUsername());
+        }
+        usernamesByRole.forEach((roleId, usernames) -> jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_USER_ROLES);
+            Array array = con.createArrayOf("varchar", usernames.toArray());
+            ps.setLong(1, roleId);
+            ps.setString(2, importedBy);
+            ps.setArray(3, array);
+            return ps;
+        }));
+    }
+
+    private String validate(UserImportRow row) {
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private static String roleCode(UserImportRow row) {
+        String role = row.getRole();
+        if (role == null || role.isBlank()) {
+            return DEFAULT_ROLE;
+        }
+        role = role.trim().toUpperCase(Locale.ROOT);
+        return role.startsWith("ROLE_") ? role : "ROLE_" + role;
+    }
+
+    private void addError(UserImportResult result, int line, String username, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < properties.getUserImport().getMaxReportedErrors()) {
+            result.getErrors().add(new UserImportResult.RowError(line, username, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * Read JSON objects one at a time from either a JSON array or newline-delimited JSON.
+     * Each element is read as a tree first, so a row whose values do not fit
+     * {@link UserImportRow} fails on its own instead of ending the import.
+     */
+    private RowSource jsonRows(InputStream in) throws IOException {
+        MappingIterator<JsonNode> iterator = objectMapper.readerFor(JsonNode.class).readValues(in);
+        int[] record = {0};
+        return () -> {
+            if (!iterator.hasNextValue()) {
+                return null;
+            }
+            JsonNode node = iterator.nextValue();
+            record[0]++;
+            try {
+                return new ImportLine(record[0], objectMapper.treeToValue(node, UserImportRow.class), null);
+            } catch (JsonProcessingException ex) {
+                return new ImportLine(record[0], null, "Invalid row: " + ex.getOriginalMessage());
+            }
+        };
+    }
+
+    /**
+     * Read CSV records, mapping columns by the header row.
+     * Header names are matched case-insensitively, ignoring underscores.
+     */
+    private RowSource csvRows(InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+
+        return () -> {
+            List<String> record = reader.readRecord();
+            while (record != null && record.size() == 1 && record.get(0).isBlank()) {
+                record = reader.readRecord();
+            }
+            if (record == null) {
+                return null;
+            }
+            int line = reader.getRecordLine();
+            if (record.size() != header.size()) {
+                return new ImportLine(line, null, "Expected " + header.size() + " columns but found " + record.size());
+            }
+
+            UserImportRow row = new UserImportRow();
+            row.setUsername(csvValue(record, columns, "username"));
+            row.setPassword(csvValue(record, columns, "password"));
+            row.setEmail(csvValue(record, columns, "email"));
+            row.setFullName(csvValue(record, columns, "fullname"));
+            row.setPhone(csvValue(record, columns, "phone"));
+            row.setRole(csvValue(record, columns, "role"));
+            String fabrikaKod = csvValue(record, columns, "fabrikakod");
+            if (fabrikaKod != null) {
+                try {
+                    row.setFabrikaKod(Long.parseLong(fabrikaKod));
+                } catch (NumberFormatException ex) {
+                    return new ImportLine(line, row, "Invalid fabrikaKod: " + fabrikaKod);
+                }
+            }
+            return new ImportLine(line, row, null);
+        };
+    }
+
+    private static String csvValue(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ImportLine next() throws IOException;
+    }
+
+    private record ImportLine(int line, UserImportRow row, String error) {
+    }
+
+    private record PendingUser(int line, UserImportRow row, Long roleId, String encodedPassword) {
+        PendingUser withPassword(String encoded) {
+            return new PendingUser(line, row, roleId, encoded);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.screenengine.service;
 
+import com.screenengine.dto.CursorPage;
 import com.screenengine.dto.UpdateUserRequest;
 import com.screenengine.dto.UserDTO;
+import com.screenengine.dto.UserSearchCriteria;
 import com.screenengine.exception.ResourceNotFoundException;
 import com.screenengine.model.Role;
 import com.screenengine.model.User;
-import com.screenengine.repository.RoleRepository;
+import com.screenengine.repository.UserQueryRepository;
 import com.screenengine.repository.UserRepository;
+import com.screenengine.security.PrincipalCache;
+import com.screenengine.security.RoleCatalog;
+import com.screenengine.security.SecurityVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -17,26 +22,25 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final UserQueryRepository userQueryRepository;
+    private final RoleCatalog roleCatalog;
     private final JdbcTemplate jdbcTemplate;
     private final PasswordEncoder passwordEncoder;
+    private final SecurityVersionRegistry securityVersionRegistry;
+    private final PrincipalCache principalCache;
 
     /**
-     * Get all users with their roles
+     * Search users one keyset page at a time
      */
     @Transactional(readOnly = true)
-    public List<UserDTO> getAllUsers() {
-        Iterable<User> users = userRepository.findAll();
-        return StreamSupport.stream(users.spliterator(), false)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPage<UserDTO> searchUsers(UserSearchCriteria criteria) {
+        return userQueryRepository.findPage(criteria);
     }
 
     /**
@@ -92,6 +96,10 @@ public class UserService {
             updateUserRole(userId, request.getRole());
         }
 
+        // Revoke tokens carrying the old claims
+        securityVersionRegistry.bump(userId);
+        principalCache.invalidate(userId);
+
         return convertToDTO(updatedUser);
     }
 
@@ -106,6 +114,9 @@ public class UserService {
         user.setActive(0);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+
+        securityVersionRegistry.bump(userId);
+        principalCache.invalidate(userId);
     }
 
     /**
@@ -120,6 +131,9 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
         User updatedUser = userRepository.save(user);
 
+        securityVersionRegistry.bump(userId);
+        principalCache.invalidate(userId);
+
         return convertToDTO(updatedUser);
     }
 
@@ -133,7 +147,7 @@ public class UserService {
 
         // Find the role
         String fullRoleCode = roleCode.startsWith("ROLE_") ? roleCode : "ROLE_" + roleCode;
-        Role role = roleRepository.findByRoleCode(fullRoleCode)
+        Role role = roleCatalog.findActiveByCode(fullRoleCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + roleCode));
 
         // Insert new role
@@ -141,6 +155,9 @@ public class UserService {
             "INSERT INTO t_user_role (user_id, role_id, created_at, created_by) VALUES (?, ?, ?, ?)",
             userId, role.getRoleId(), LocalDateTime.now(), "ADMIN"
         );
+
+        securityVersionRegistry.bump(userId);
+        principalCache.invalidate(userId);
     }
 
     /**
@@ -148,7 +165,7 @@ public class UserService {
      */
     private UserDTO convertToDTO(User user) {
         // Get user roles
-        List<Role> roles = roleRepository.findByUserId(user.getUserId());
+        List<Role> roles = roleCatalog.findActiveByIds(userRepository.findRoleIdsByUserId(user.getUserId()));
         List<String> roleNames = roles.stream()
                 .map(Role::getRoleCode)
                 .collect(Collectors.toList());
@@ -0,0 +1,44 @@
+package com.screenengine.sql;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Query panel operators of t_kul_ekran_tablo_kolon.ozellik_panel2.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum FilterOperator {
+
+    EQ("="),
+    NE("<>"),
+    LT("<"),
+    LE("<="),
+    GT(">"),
+    GE(">="),
+    LIKE("LIKE"),
+    IN("IN");
+
+    private final String symbol;
+
+    /**
+     * Parse a stored operator; a missing operator means equality
+     */
+    public static FilterOperator of(String symbol) {
+        if (symbol == null || symbol.isBlank()) {
+            return EQ;
+        }
+        String trimmed = symbol.trim().toUpperCase(Locale.ROOT);
+        for (FilterOperator operator : values()) {
+            if (operator.symbol.equals(trimmed)) {
+                return operator;
+            }
+        }
+        if ("!=".equals(trimmed)) {
+            return NE;
+        }
+        throw new IllegalArgumentException("Unknown filter operator: " + symbol);
+    }
+}
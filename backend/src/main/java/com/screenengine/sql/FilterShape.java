@@ -0,0 +1,47 @@
+package com.screenengine.sql;
+
+import java.util.Arrays;
+
+/**
+ * Which query panel filters of a table are set, used as the template cache key.
+ * Slot i belongs to the i-th panel column of the table: 0 when the filter is
+ * empty, otherwise the number of placeholders it needs (1, or the padded IN
+ * list size on dialects without array binding). Requests with the same shape
+ * share one SQL text and therefore one driver and server plan.
+ */
+public final class FilterShape {
+
+    private final int[] slots;
+    private final int hash;
+
+    FilterShape(int[] slots) {
+        this.slots = slots;
+        this.hash = Arrays.hashCode(slots);
+    }
+
+    /**
+     * Placeholders needed by the i-th panel column, 0 when its filter is empty
+     */
+    public int slot(int index) {
+        return slots[index];
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof FilterShape shape && Arrays.equals(slots, shape.slots);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(slots);
+    }
+}
@@ -0,0 +1,101 @@
+package com.screenengine.sql;
+
+import com.screenengine.model.ColumnType;
+import com.screenengine.model.ScreenColumn;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque continuation token of a keyset-paginated screen query.
+ * The token holds the sort signature and the sort key values of the last row
+ * of the previous page; a token is only accepted for the same sort.
+ * Key values are read by {@link QueryTemplate#readValue} and written in ISO
+ * form, so they decode to the same Java type they were read as. NULL is
+ * encoded explicitly and refused on decode: the keyset predicate compares with
+ * = and >, which no NULL satisfies, so such a page cannot be continued.
+ */
+public final class KeysetCursor {
+
+    // PostgreSQL text cannot contain NUL, so it never occurs inside a value
+    private static final char SEPARATOR = '\u0000';
+    private static final char VALUE = 'v';
+    private static final char NULL = 'n';
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encode the key values of the last row of a page
+     */
+    public static String encode(String signature, Object[] values) {
+        StringBuilder raw = new StringBuilder(signature);
+        for (Object value : values) {
+            raw.append(SEPARATOR);
+            if (value == null) {
+                raw.append(NULL);
+            } else {
+                raw.append(VALUE).append(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token into key values typed like the given sort keys
+     */
+    public static Object[] decode(String signature, String token, List<SortKey> keys) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+        if (!parts[0].equals(signature)) {
+            throw new IllegalArgumentException("Cursor does not match sort " + signature);
+        }
+        if (parts.length != keys.size() + 1) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < values.length; i++) {
+            String part = parts[i + 1];
+            ScreenColumn column = keys.get(i).column();
+            if (part.length() == 1 && part.charAt(0) == NULL) {
+                throw new IllegalArgumentException("Cannot continue after a row without a value for "
+                        + column.getKolonAd() + ", sort pages by columns that always have a value");
+            }
+            if (part.isEmpty() || part.charAt(0) != VALUE) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            values[i] = convert(column, part.substring(1));
+        }
+        return values;
+    }
+
+    private static Object convert(ScreenColumn column, String value) {
+        if (column.getTipi() != ColumnType.DATE) {
+            return QueryTemplate.convert(column, value);
+        }
+        try {
+            if (value.length() <= 10) {
+                return LocalDate.parse(value);
+            }
+            // An offset follows the time part of timestamptz values read as OffsetDateTime
+            int time = value.indexOf('T');
+            boolean offset = time > 0 && (value.endsWith("Z") || value.indexOf('+', time) > 0 || value.indexOf('-', time) > 0);
+            return offset ? OffsetDateTime.parse(value) : LocalDateTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
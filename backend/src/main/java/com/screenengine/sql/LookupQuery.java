@@ -0,0 +1,19 @@
+package com.screenengine.sql;
+
+import java.util.List;
+
+/**
+ * Compiled code-to-name query of a JOIN column's dimension table.
+ * Selects (code, name) for a batch of codes bound first, followed by the
+ * parameters of the column's join condition.
+ *
+ * @param sql              statement text
+ * @param codePlaceholders placeholders for codes, 0 when all codes are bound as one array
+ * @param parameters       join condition parameters in placeholder order
+ */
+public record LookupQuery(String sql, int codePlaceholders, List<SystemParameter> parameters) {
+
+    public boolean isArrayBound() {
+        return codePlaceholders == 0;
+    }
+}
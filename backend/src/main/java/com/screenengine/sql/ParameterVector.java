@@ -0,0 +1,75 @@
+package com.screenengine.sql;
+
+import com.screenengine.config.ScreenEngineProperties;
+
+import java.util.Arrays;
+
+/**
+ * Values of the {@link SystemParameter}s for one request, indexed by ordinal.
+ * The global defaults are built once; a user's vector is a copy with the
+ * user-specific values replaced, or the defaults themselves when nothing differs.
+ * Instances are immutable.
+ */
+public final class ParameterVector {
+
+    private static final SystemParameter[] PARAMETERS = SystemParameter.values();
+
+    private final Object[] values;
+
+    private ParameterVector(Object[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Vector of the configured global parameters
+     */
+    public static ParameterVector defaults(ScreenEngineProperties.Parameters parameters) {
+        Object[] values = new Object[PARAMETERS.length];
+        values[SystemParameter.FACTORY.ordinal()] = parameters.getFactory();
+        values[SystemParameter.USER.ordinal()] = parameters.getUser();
+        values[SystemParameter.PERSON_ID.ordinal()] = parameters.getPersonId();
+        values[SystemParameter.ORG_CODE.ordinal()] = parameters.getOrgCode();
+        values[SystemParameter.ACCOUNTING_ORG_ID.ordinal()] = parameters.getAccountingOrgId();
+        values[SystemParameter.ACCOUNTING_PERIOD_ID.ordinal()] = parameters.getAccountingPeriodId();
+        values[SystemParameter.DEPARTMENT_NO.ordinal()] = parameters.getDepartmentNo();
+        return new ParameterVector(values);
+    }
+
+    /**
+     * This vector with the factory and user of the authenticated user; null values keep the default
+     */
+    public ParameterVector forUser(Long fabrikaKod, String username) {
+        boolean factory = fabrikaKod != null && !fabrikaKod.equals(get(SystemParameter.FACTORY));
+        boolean user = username != null && !username.equals(get(SystemParameter.USER));
+        if (!factory && !user) {
+            return this;
+        }
+        Object[] copy = values.clone();
+        if (factory) {
+            copy[SystemParameter.FACTORY.ordinal()] = fabrikaKod;
+        }
+        if (user) {
+            copy[SystemParameter.USER.ordinal()] = username;
+        }
+        return new ParameterVector(copy);
+    }
+
+    public Object get(SystemParameter parameter) {
+        return values[parameter.ordinal()];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof ParameterVector other && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,236 @@
+package com.screenengine.sql;
+
+import com.screenengine.model.ScreenColumn;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled, parameterized SELECT for one table, filter shape and sort.
+ * The SQL text only contains positional placeholders; {@link #bind} converts the
+ * request's filter values to the column types and sets them in slot order.
+ * Paged templates end with a keyset predicate and a row limit. Instances are
+ * immutable and shared by every request with the same shape.
+ */
+@Getter
+public class QueryTemplate {
+
+    private final String sql;
+    private final List<ScreenColumn> columns;
+    private final List<BindSlot> binds;
+    private final List<SortKey> sortKeys;
+    private final int[] sortKeyIndexes;
+
+    QueryTemplate(String sql, List<ScreenColumn> columns, List<BindSlot> binds, List<SortKey> sortKeys) {
+        this.sql = sql;
+        this.columns = List.copyOf(columns);
+        this.binds = List.copyOf(binds);
+        this.sortKeys = List.copyOf(sortKeys);
+        this.sortKeyIndexes = new int[sortKeys.size()];
+        for (int i = 0; i < sortKeyIndexes.length; i++) {
+            sortKeyIndexes[i] = this.columns.indexOf(sortKeys.get(i).column()) + 1;
+        }
+    }
+
+    /**
+     * Sort signature that cursors of this template are bound to
+     */
+    public String getSortSignature() {
+        StringBuilder signature = new StringBuilder();
+        for (SortKey key : sortKeys) {
+            if (!signature.isEmpty()) {
+                signature.append(',');
+            }
+            signature.append(key);
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Result set positions (1-based) of the sort keys, to build the next cursor
+     */
+    public int[] getSortKeyIndexes() {
+        return sortKeyIndexes.clone();
+    }
+
+    /**
+     * Kind of value bound to a placeholder
+     */
+    public enum BindKind {
+        /** A query panel filter value */
+        FILTER,
+        /** All values of an IN filter as one array */
+        FILTER_ARRAY,
+        /** A system parameter such as :FACTORY, read from the request's parameter vector */
+        PARAMETER,
+        /** A sort key value of the last row of the previous page */
+        CURSOR,
+        /** Maximum number of rows */
+        LIMIT
+    }
+
+    /**
+     * One placeholder of the statement.
+     *
+     * @param kind      where the value comes from
+     * @param column    filtered column, null for parameters
+     * @param operator  filter operator, null for parameters
+     * @param position  index within an expanded IN list, or of the cursor value
+     * @param parameter system parameter, null for other kinds
+     */
+    public record BindSlot(BindKind kind, ScreenColumn column, FilterOperator operator, int position,
+                           SystemParameter parameter) {
+    }
+
+    /**
+     * Bind filter values and parameters to a statement prepared from {@link #getSql()}
+     */
+    public void bind(PreparedStatement ps, Map<String, String> filters, ParameterVector parameters) throws SQLException {
+        bind(ps, filters, parameters, null, 0);
+    }
+
+    /**
+     * Bind filter values, parameters, the decoded cursor and the row limit of a paged template
+     */
+    public void bind(PreparedStatement ps, Map<String, String> filters, ParameterVector parameters,
+                     Object[] cursor, int limit) throws SQLException {
+        int index = 1;
+        for (BindSlot slot : binds) {
+            switch (slot.kind()) {
+                case CURSOR -> ps.setObject(index, cursor[slot.position()]);
+                case LIMIT -> ps.setInt(index, limit);
+                case PARAMETER -> ps.setObject(index, parameters.get(slot.parameter()));
+                case FILTER_ARRAY -> {
+                    String[] values = splitList(filters.get(slot.column().getDbKolon()));
+                    Object[] converted = new Object[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        converted[i] = convert(slot.column(), values[i]);
+                    }
+                    String type = arrayType(slot.column(), converted);
+                    if ("varchar".equals(type)) {
+                        converted = Arrays.stream(converted).map(String::valueOf).toArray();
+                    }
+                    Array array = ps.getConnection().createArrayOf(type, converted);
+                    ps.setArray(index, array);
+                }
+                case FILTER -> {
+                    String raw = filters.get(slot.column().getDbKolon());
+                    if (slot.operator() == FilterOperator.IN) {
+                        // Padding slots repeat the last value, which leaves the result unchanged
+                        String[] values = splitList(raw);
+                        ps.setObject(index, convert(slot.column(), values[Math.min(slot.position(), values.length - 1)]));
+                    } else if (slot.operator() == FilterOperator.LIKE) {
+                        ps.setString(index, likePattern(raw.trim()));
+                    } else {
+                        ps.setObject(index, convert(slot.column(), raw.trim()));
+                    }
+                }
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Split a comma separated IN filter, dropping blank entries
+     */
+    static String[] splitList(String raw) {
+        return Arrays.stream(raw.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Values without wildcards match as a prefix, so an index on the column stays usable
+     */
+    private static String likePattern(String value) {
+        return value.indexOf('%') >= 0 || value.indexOf('_') >= 0 ? value : value + "%";
+    }
+
+    /**
+     * Read a column of the current row with the getter of its type.
+     * Numbers keep their Java type, NULL stays null, DATE columns become
+     * LocalDateTime or LocalDate and other JOIN codes become strings, so rows and
+     * cursor keys hold the same values and serialize in ISO form.
+     */
+    public static Object readValue(ResultSet rs, int index, ScreenColumn column) throws SQLException {
+        return switch (column.getTipi()) {
+            case STR, COMBO -> rs.getString(index);
+            case LONG, PK -> {
+                long value = rs.getLong(index);
+                yield rs.wasNull() ? null : value;
+            }
+            case INT, BOOL -> {
+                int value = rs.getInt(index);
+                yield rs.wasNull() ? null : value;
+            }
+            case NUMBER, BIG -> rs.getBigDecimal(index);
+            case DATE -> {
+                Object value = rs.getObject(index);
+                if (value instanceof Timestamp timestamp) {
+                    yield timestamp.toLocalDateTime();
+                }
+                yield value instanceof Date date ? date.toLocalDate() : value;
+            }
+            case JOIN -> {
+                Object value = rs.getObject(index);
+                yield value instanceof Number || value == null ? value : value.toString();
+            }
+        };
+    }
+
+    /**
+     * Convert a filter value to the Java type of the column
+     */
+    static Object convert(ScreenColumn column, String value) {
+        try {
+            return switch (column.getTipi()) {
+                case STR, COMBO -> value;
+                case LONG, PK -> Long.valueOf(value);
+                case INT -> Integer.valueOf(value);
+                case NUMBER, BIG -> new BigDecimal(value);
+                case DATE -> value.length() > 10 ? LocalDateTime.parse(value.replace(' ', 'T')) : LocalDate.parse(value);
+                case BOOL -> "1".equals(value) || "true".equalsIgnoreCase(value) ? 1 : 0;
+                case JOIN -> isInteger(value) ? (Object) Long.valueOf(value) : value;
+            };
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid value for " + column.getKolonAd() + ": " + value);
+        }
+    }
+
+    private static String arrayType(ScreenColumn column, Object[] values) {
+        return switch (column.getTipi()) {
+            case LONG, PK -> "bigint";
+            case INT, BOOL -> "integer";
+            case NUMBER, BIG -> "numeric";
+            case DATE -> "date";
+            case STR, COMBO -> "varchar";
+            case JOIN -> Arrays.stream(values).allMatch(Long.class::isInstance) ? "bigint" : "varchar";
+        };
+    }
+
+    private static boolean isInteger(String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && !(i == 0 && c == '-' && value.length() > 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,361 @@
+package com.screenengine.sql;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.model.ScreenColumn;
+import com.screenengine.model.ScreenDefinition;
+import com.screenengine.model.ScreenTable;
+import com.screenengine.sql.dialect.SqlDialect;
+import com.screenengine.sql.dialect.SqlGenerator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles screen tables into parameterized SELECT templates.
+ * A template depends only on the table metadata, the dialect's {@link SqlGenerator},
+ * the filter shape (which panel filters are set) and the sort, never on the filter
+ * or cursor values, so it is built once and reused. Templates are grouped per
+ * screen table and dropped as a group when the screen's metadata version changes.
+ */
+@Slf4j
+@Component
+public class ScreenQueryCompiler implements MeterBinder {
+
+    private static final int MAX_SHAPES_PER_TABLE = 256;
+    private static final int MAX_IN_VALUES = 1000;
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$#]*(\\.[A-Za-z_][A-Za-z0-9_$#]*)?");
+
+    private final SqlGenerator generator;
+    private final boolean debugQuery;
+    private final Map<String, CompiledTable> compiledTables = new ConcurrentHashMap<>();
+
+    public ScreenQueryCompiler(ScreenEngineProperties properties, ObjectProvider<SqlGenerator> customGenerator) {
+        this.generator = customGenerator.getIfAvailable(() -> SqlDialect.of(properties.getSql().getDialect()).generator());
+        this.debugQuery = properties.getSql().isEnableDebugQuery();
+    }
+
+    public SqlGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Get the template for a table and the filters of a request, compiling it on first use
+     */
+    public QueryTemplate compile(ScreenDefinition screen, ScreenTable table, Map<String, String> filters) {
+        return compile(screen, table, filters, List.of(), false, false);
+    }
+
+    /**
+     * Get the template for a table, filters and sort, compiling it on first use.
+     * The key column of the table is appended as a tiebreaker so the order is total.
+     * Paged templates add a keyset predicate when continuing after a cursor and a row limit.
+     */
+    public QueryTemplate compile(ScreenDefinition screen, ScreenTable table, Map<String, String> filters,
+                                 List<SortKey> sort, boolean paged, boolean afterCursor) {
+        List<SortKey> sortKeys = withTiebreaker(table, sort, paged);
+        TemplateKey templateKey = new TemplateKey(shapeOf(table, filters), sortKeys.toString(), paged, afterCursor);
+
+        String key = screen.getEkranKod() + '/' + table.getTabloId();
+        CompiledTable compiled = compiledTables.get(key);
+        if (compiled == null || !compiled.version.equals(screen.getVersion())) {
+            compiled = new CompiledTable(screen.getVersion());
+            compiledTables.put(key, compiled);
+        }
+
+        QueryTemplate template = compiled.templates.get(templateKey);
+        if (template == null) {
+            template = build(table, templateKey.filters(), sortKeys, paged, afterCursor);
+            // Shapes are bounded by the panel columns, the cap only guards against pathological screens
+            if (compiled.templates.size() < MAX_SHAPES_PER_TABLE) {
+                compiled.templates.putIfAbsent(templateKey, template);
+            }
+            if (debugQuery) {
+                log.debug("Compiled query for {} {}: {}", key, templateKey, template.getSql());
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Parse a sort parameter such as "customer_name,-created_date"; a leading '-' sorts descending
+     */
+    public List<SortKey> parseSort(ScreenTable table, String sort) {
+        if (sort == null || sort.isBlank()) {
+            return List.of();
+        }
+        List<SortKey> keys = new ArrayList<>();
+        for (String part : sort.split(",")) {
+            String name = part.trim();
+            boolean descending = name.startsWith("-");
+            if (descending) {
+                name = name.substring(1).trim();
+            }
+            ScreenColumn column = table.findColumn(name);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown sort column: " + name);
+            }
+            keys.add(new SortKey(column, descending));
+        }
+        return keys;
+    }
+
+    /**
+     * Append the key column unless it is already sorted on.
+     * Keyset predicates compare with = and >, which NULLs never satisfy, so paged
+     * sorts are limited to required columns and the key column.
+     */
+    private static List<SortKey> withTiebreaker(ScreenTable table, List<SortKey> sort, boolean paged) {
+        ScreenColumn keyColumn = table.getTabloIdKolon() != null ? table.findColumn(table.getTabloIdKolon()) : null;
+        if (paged && keyColumn == null) {
+            throw new IllegalArgumentException("Screen table " + table.getTabloAd() + " has no key column, paging is not available");
+        }
+
+        List<SortKey> keys = new ArrayList<>(sort.size() + 1);
+        boolean hasKey = false;
+        for (SortKey key : sort) {
+            if (paged && !key.column().isZorunlu() && key.column() != keyColumn) {
+                throw new IllegalArgumentException("Column " + key.column().getDbKolon() + " is optional and cannot be used to sort pages");
+            }
+            hasKey |= key.column() == keyColumn;
+            keys.add(key);
+        }
+        if (keyColumn != null && !hasKey) {
+            keys.add(new SortKey(keyColumn, false));
+        }
+        return keys;
+    }
+
+    /**
+     * Shape of the given filters over the query panel columns of a table
+     */
+    public FilterShape shapeOf(ScreenTable table, Map<String, String> filters) {
+        List<ScreenColumn> columns = table.getColumns();
+        int panelColumns = 0;
+        for (ScreenColumn column : columns) {
+            if (column.isInQueryPanel()) {
+                panelColumns++;
+            }
+        }
+
+        int[] slots = new int[panelColumns];
+        int index = 0;
+        for (ScreenColumn column : columns) {
+            if (!column.isInQueryPanel()) {
+                continue;
+            }
+            String value = filters.get(column.getDbKolon());
+            if (value != null && !value.isBlank()) {
+                slots[index] = placeholders(column, value);
+            }
+            index++;
+        }
+        return new FilterShape(slots);
+    }
+
+    private int placeholders(ScreenColumn column, String value) {
+        if (FilterOperator.of(column.getOzellikPanel2()) != FilterOperator.IN || generator.supportsArrayBinding()) {
+            return 1;
+        }
+        int count = QueryTemplate.splitList(value).length;
+        if (count == 0) {
+            throw new IllegalArgumentException("Empty value list for " + column.getKolonAd());
+        }
+        if (count > MAX_IN_VALUES) {
+            throw new IllegalArgumentException("Too many values for " + column.getKolonAd() + ", at most " + MAX_IN_VALUES);
+        }
+        return inListSize(count);
+    }
+
+    /**
+     * Placeholders of an expanded IN list for the given number of values, or 0 when
+     * the dialect binds lists as arrays. Sizes are rounded up to a power of two so
+     * a handful of list sizes share one statement.
+     */
+    public int inListSize(int count) {
+        if (generator.supportsArrayBinding()) {
+            return 0;
+        }
+        return count <= 1 ? 1 : Math.min(Integer.highestOneBit(count - 1) << 1, MAX_IN_VALUES);
+    }
+
+    private QueryTemplate build(ScreenTable table, FilterShape shape, List<SortKey> sortKeys,
+                                boolean paged, boolean afterCursor) {
+        List<QueryTemplate.BindSlot> binds = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ");
+
+        List<ScreenColumn> columns = table.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(identifier(columns.get(i).getDbKolon()));
+        }
+        sql.append(" FROM ").append(identifier(table.getDbTablo()));
+
+        // Conditions are appended in text order, so their binds line up with the placeholders
+        List<StringBuilder> conditions = new ArrayList<>(3);
+        SqlCondition staticWhere = table.getWhereCondition();
+        if (staticWhere != null) {
+            for (SystemParameter parameter : staticWhere.parameters()) {
+                binds.add(new QueryTemplate.BindSlot(QueryTemplate.BindKind.PARAMETER, null, null, 0, parameter));
+            }
+            conditions.add(new StringBuilder(staticWhere.sql()));
+        }
+        StringBuilder filterSql = new StringBuilder();
+        appendFilters(filterSql, columns, shape, binds);
+        if (!filterSql.isEmpty()) {
+            conditions.add(filterSql);
+        }
+        if (paged && afterCursor) {
+            StringBuilder keyset = new StringBuilder();
+            appendKeysetPredicate(keyset, sortKeys, binds);
+            conditions.add(keyset);
+        }
+
+        for (int i = 0; i < conditions.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ");
+            if (conditions.size() > 1) {
+                sql.append('(').append(conditions.get(i)).append(')');
+            } else {
+                sql.append(conditions.get(i));
+            }
+        }
+
+        for (int i = 0; i < sortKeys.size(); i++) {
+            SortKey key = sortKeys.get(i);
+            sql.append(i == 0 ? " ORDER BY " : ", ").append(identifier(key.column().getDbKolon()));
+            if (key.descending()) {
+                sql.append(" DESC");
+            }
+        }
+
+        if (paged) {
+            generator.appendRowLimit(sql);
+            binds.add(new QueryTemplate.BindSlot(QueryTemplate.BindKind.LIMIT, null, null, 0, null));
+        }
+        return new QueryTemplate(sql.toString(), columns, binds, sortKeys);
+    }
+
+    /**
+     * Append the predicate selecting rows after the cursor, in the generator's preferred form
+     */
+    private void appendKeysetPredicate(StringBuilder sql, List<SortKey> keys, List<QueryTemplate.BindSlot> binds) {
+        String[] columns = new String[keys.size()];
+        boolean[] descending = new boolean[keys.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = identifier(keys.get(i).column().getDbKolon());
+            descending[i] = keys.get(i).descending();
+        }
+        for (int key : generator.appendKeysetPredicate(sql, columns, descending)) {
+            binds.add(new QueryTemplate.BindSlot(QueryTemplate.BindKind.CURSOR, keys.get(key).column(), null, key, null));
+        }
+    }
+
+    /**
+     * Append the set panel filters, joined by each column's AND/OR logic
+     */
+    private void appendFilters(StringBuilder sql, List<ScreenColumn> columns, FilterShape shape,
+                               List<QueryTemplate.BindSlot> binds) {
+        int index = 0;
+        int predicates = 0;
+        for (ScreenColumn column : columns) {
+            if (!column.isInQueryPanel()) {
+                continue;
+            }
+            int slot = shape.slot(index++);
+            if (slot == 0) {
+                continue;
+            }
+
+            if (predicates++ > 0) {
+                sql.append("OR".equalsIgnoreCase(column.getOzellikPanel1()) ? " OR " : " AND ");
+            }
+
+            String name = identifier(column.getDbKolon());
+            FilterOperator operator = FilterOperator.of(column.getOzellikPanel2());
+            if (operator == FilterOperator.IN && generator.supportsArrayBinding()) {
+                generator.appendInList(sql, name, 0);
+                binds.add(new QueryTemplate.BindSlot(QueryTemplate.BindKind.FILTER_ARRAY, column, operator, 0, null));
+            } else if (operator == FilterOperator.IN) {
+                generator.appendInList(sql, name, slot);
+                for (int i = 0; i < slot; i++) {
+                    binds.add(new QueryTemplate.BindSlot(QueryTemplate.BindKind.FILTER, column, operator, i, null));
+                }
+            } else {
+                sql.append(name).append(' ').append(operator.getSymbol()).append(" ?");
+                binds.add(new QueryTemplate.BindSlot(QueryTemplate.BindKind.FILTER, column, operator, 0, null));
+            }
+        }
+    }
+
+    /**
+     * Compile the dimension lookup of a JOIN column for a batch of the given number of codes.
+     * The code column is join_tablo_db_kod, the name column join_tablo_db_ad, and
+     * ozellik_kolon2 is added as a condition on the dimension table.
+     */
+    public LookupQuery compileLookup(ScreenColumn column, int codes) {
+        String codeColumn = identifier(column.getJoinTabloDbKod());
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(codeColumn).append(", ").append(identifier(column.getJoinTabloDbAd()))
+                .append(" FROM ").append(identifier(column.getJoinTablo()))
+                .append(" WHERE ");
+
+        int placeholders = inListSize(codes);
+        generator.appendInList(sql, codeColumn, placeholders);
+
+        List<SystemParameter> parameters = List.of();
+        SqlCondition joinCondition = column.getJoinCondition();
+        if (joinCondition != null) {
+            sql.append(" AND (").append(joinCondition.sql()).append(')');
+            parameters = joinCondition.parameters();
+        }
+        return new LookupQuery(sql.toString(), placeholders, parameters);
+    }
+
+    /**
+     * Largest number of codes a single lookup statement may carry
+     */
+    public int maxLookupBatch() {
+        return MAX_IN_VALUES;
+    }
+
+    /**
+     * Metadata names are spliced into SQL text, so anything but a plain identifier is refused
+     */
+    private static String identifier(String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalStateException("Invalid identifier in screen metadata: " + name);
+        }
+        return name;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("screen.query.templates", compiledTables,
+                        tables -> tables.values().stream().mapToInt(table -> table.templates.size()).sum())
+                .description("Compiled screen query templates")
+                .register(registry);
+    }
+
+    private record TemplateKey(FilterShape filters, String sort, boolean paged, boolean afterCursor) {
+    }
+
+    private static final class CompiledTable {
+
+        private final String version;
+        private final Map<TemplateKey, QueryTemplate> templates = new ConcurrentHashMap<>();
+
+        CompiledTable(String version) {
+            this.version = version;
+        }
+    }
+}
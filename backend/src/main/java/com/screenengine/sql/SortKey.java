@@ -0,0 +1,17 @@
+package com.screenengine.sql;
+
+import com.screenengine.model.ScreenColumn;
+
+/**
+ * One ORDER BY entry of a screen query.
+ *
+ * @param column     sorted column
+ * @param descending true for descending order
+ */
+public record SortKey(ScreenColumn column, boolean descending) {
+
+    @Override
+    public String toString() {
+        return (descending ? "-" : "") + column.getDbKolon();
+    }
+}
@@ -0,0 +1,58 @@
+package com.screenengine.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A metadata condition with its :NAME placeholders turned into positional binds.
+ * Conditions are parsed once when the screen metadata is loaded.
+ *
+ * @param sql        condition text with ? in place of each placeholder
+ * @param parameters system parameters in placeholder order
+ */
+public record SqlCondition(String sql, List<SystemParameter> parameters) {
+
+    /**
+     * Parse a condition such as "fabrika_kod = :FACTORY".
+     * Quoted literals and :: casts are left untouched.
+     *
+     * @throws IllegalArgumentException when a placeholder is not a {@link SystemParameter}
+     */
+    public static SqlCondition parse(String condition) {
+        StringBuilder sql = new StringBuilder(condition.length());
+        List<SystemParameter> parameters = new ArrayList<>();
+        int length = condition.length();
+        int i = 0;
+        while (i < length) {
+            char c = condition.charAt(i);
+            if (c == '\'') {
+                int end = condition.indexOf('\'', i + 1);
+                end = end < 0 ? length : end + 1;
+                sql.append(condition, i, end);
+                i = end;
+            } else if (c == ':' && i + 1 < length && condition.charAt(i + 1) == ':') {
+                sql.append("::");
+                i += 2;
+            } else if (c == ':' && i + 1 < length && Character.isJavaIdentifierStart(condition.charAt(i + 1))) {
+                int end = i + 1;
+                while (end < length && Character.isJavaIdentifierPart(condition.charAt(end))) {
+                    end++;
+                }
+                parameters.add(SystemParameter.of(condition.substring(i + 1, end)));
+                sql.append('?');
+                i = end;
+            } else {
+                sql.append(c);
+                i++;
+            }
+        }
+        return new SqlCondition(sql.toString(), List.copyOf(parameters));
+    }
+
+    /**
+     * Parse a condition that may be absent; null or blank text gives null
+     */
+    public static SqlCondition parseOptional(String condition) {
+        return condition == null || condition.isBlank() ? null : parse(condition);
+    }
+}
@@ -0,0 +1,47 @@
+package com.screenengine.sql;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named system parameters that metadata conditions may reference as :NAME.
+ * Each parameter is resolved to its ordinal when the metadata is loaded, so
+ * binding reads a {@link ParameterVector} slot instead of looking up a name.
+ */
+public enum SystemParameter {
+    FACTORY("FACTORY", "FABRIKA"),
+    USER("KULLANICI"),
+    PERSON_ID("KISIID"),
+    ORG_CODE("ORGKODU"),
+    ACCOUNTING_ORG_ID("MUHORGID"),
+    ACCOUNTING_PERIOD_ID("MUHORGDONEMID"),
+    DEPARTMENT_NO("BIRIMNO");
+
+    private static final Map<String, SystemParameter> BY_NAME = new HashMap<>();
+
+    static {
+        for (SystemParameter parameter : values()) {
+            for (String name : parameter.names) {
+                BY_NAME.put(name, parameter);
+            }
+        }
+    }
+
+    private final String[] names;
+
+    SystemParameter(String... names) {
+        this.names = names;
+    }
+
+    /**
+     * Parameter for a placeholder name without the colon, case-insensitive
+     */
+    public static SystemParameter of(String name) {
+        SystemParameter parameter = BY_NAME.get(name.toUpperCase(Locale.ROOT));
+        if (parameter == null) {
+            throw new IllegalArgumentException("Unknown parameter: :" + name);
+        }
+        return parameter;
+    }
+}
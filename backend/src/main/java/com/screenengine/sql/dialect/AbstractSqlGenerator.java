@@ -0,0 +1,121 @@
+package com.screenengine.sql.dialect;
+
+import java.util.List;
+
+/**
+ * Standard SQL shared by the generators: expanded IN lists and the nested
+ * keyset predicate {@code a > ? OR (a = ? AND (b > ? OR (b = ? AND id > ?)))},
+ * which every database can evaluate with an index on the leading column.
+ */
+abstract class AbstractSqlGenerator implements SqlGenerator {
+
+    @Override
+    public boolean supportsArrayBinding() {
+        return false;
+    }
+
+    @Override
+    public int[] appendKeysetPredicate(StringBuilder sql, String[] columns, boolean[] descending) {
+        int[] keys = new int[columns.length * 2 - 1];
+        int placeholder = 0;
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(columns[i]).append(descending[i] ? " < ?" : " > ?");
+            keys[placeholder++] = i;
+            if (i + 1 < columns.length) {
+                sql.append(" OR (").append(columns[i]).append(" = ? AND (");
+                keys[placeholder++] = i;
+            }
+        }
+        sql.append("))".repeat(columns.length - 1));
+        return keys;
+    }
+
+    @Override
+    public void appendInList(StringBuilder sql, String column, int placeholders) {
+        sql.append(column).append(" IN (");
+        for (int i = 0; i < placeholders; i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        sql.append(')');
+    }
+
+    /**
+     * Row value comparison {@code (a, b) > (?, ?)}, for databases that match it to a composite index
+     */
+    static int[] appendRowValuePredicate(StringBuilder sql, String[] columns, boolean descending) {
+        int[] keys = new int[columns.length];
+        sql.append('(');
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? ", " : "").append(columns[i]);
+        }
+        sql.append(descending ? ") < (" : ") > (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+            keys[i] = i;
+        }
+        sql.append(')');
+        return keys;
+    }
+
+    static boolean uniform(boolean[] descending) {
+        for (boolean direction : descending) {
+            if (direction != descending[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void appendList(StringBuilder sql, List<String> columns, String prefix) {
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(prefix).append(columns.get(i));
+        }
+    }
+
+    static void appendPlaceholders(StringBuilder sql, int count) {
+        for (int i = 0; i < count; i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+    }
+
+    /**
+     * {@code d.b = s.b, d.c = s.c} for the non-key columns
+     */
+    static void appendAssignments(StringBuilder sql, List<String> keyColumns, List<String> columns,
+                                  String target, String source) {
+        boolean first = true;
+        for (String column : columns) {
+            if (keyColumns.contains(column)) {
+                continue;
+            }
+            sql.append(first ? "" : ", ").append(target).append(column).append(" = ").append(source).append(column);
+            first = false;
+        }
+    }
+
+    static boolean hasNonKeyColumns(List<String> keyColumns, List<String> columns) {
+        return columns.stream().anyMatch(column -> !keyColumns.contains(column));
+    }
+
+    /**
+     * MERGE of one row of bound values, as Oracle and SQL Server write it
+     */
+    static String merge(String table, String alias, String source, List<String> keyColumns, List<String> columns) {
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(table).append(alias).append(" USING ")
+                .append(source).append(" ON (");
+        for (int i = 0; i < keyColumns.size(); i++) {
+            sql.append(i > 0 ? " AND " : "").append("d.").append(keyColumns.get(i)).append(" = s.").append(keyColumns.get(i));
+        }
+        sql.append(')');
+        if (hasNonKeyColumns(keyColumns, columns)) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ");
+            appendAssignments(sql, keyColumns, columns, "d.", "s.");
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT (");
+        appendList(sql, columns, "");
+        sql.append(") VALUES (");
+        appendList(sql, columns, "s.");
+        sql.append(')');
+        return sql.toString();
+    }
+}
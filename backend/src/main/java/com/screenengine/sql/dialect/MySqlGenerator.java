@@ -0,0 +1,32 @@
+package com.screenengine.sql.dialect;
+
+import java.util.List;
+
+/**
+ * MySQL 8.0.19 and later: LIMIT, expanded IN lists and INSERT ... ON DUPLICATE KEY UPDATE
+ * with a row alias. Keyset predicates use the nested form, which MySQL's range
+ * optimizer handles more reliably than row value comparisons.
+ */
+public class MySqlGenerator extends AbstractSqlGenerator {
+
+    @Override
+    public void appendRowLimit(StringBuilder sql) {
+        sql.append(" LIMIT ?");
+    }
+
+    @Override
+    public String upsert(String table, List<String> keyColumns, List<String> columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        appendList(sql, columns, "");
+        sql.append(") VALUES (");
+        appendPlaceholders(sql, columns.size());
+        sql.append(") AS s ON DUPLICATE KEY UPDATE ");
+        if (hasNonKeyColumns(keyColumns, columns)) {
+            appendAssignments(sql, keyColumns, columns, "", "s.");
+        } else {
+            // Nothing to update; assigning a key to itself turns the duplicate into a no-op
+            sql.append(keyColumns.get(0)).append(" = s.").append(keyColumns.get(0));
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.screenengine.sql.dialect;
+
+import java.util.List;
+
+/**
+ * Oracle 12c and later: FETCH FIRST, expanded IN lists and MERGE from DUAL.
+ */
+public class OracleSqlGenerator extends AbstractSqlGenerator {
+
+    @Override
+    public void appendRowLimit(StringBuilder sql) {
+        sql.append(" FETCH FIRST ? ROWS ONLY");
+    }
+
+    @Override
+    public String upsert(String table, List<String> keyColumns, List<String> columns) {
+        StringBuilder source = new StringBuilder("(SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            source.append(i > 0 ? ", ? " : "? ").append(columns.get(i));
+        }
+        source.append(" FROM dual) s");
+        return merge(table, " d", source.toString(), keyColumns, columns);
+    }
+}
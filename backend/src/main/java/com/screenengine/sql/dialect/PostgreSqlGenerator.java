@@ -0,0 +1,54 @@
+package com.screenengine.sql.dialect;
+
+import java.util.List;
+
+/**
+ * PostgreSQL: LIMIT, arrays bound to {@code = ANY(?)}, row value keyset
+ * predicates and INSERT ... ON CONFLICT.
+ */
+public class PostgreSqlGenerator extends AbstractSqlGenerator {
+
+    @Override
+    public boolean supportsArrayBinding() {
+        return true;
+    }
+
+    @Override
+    public void appendRowLimit(StringBuilder sql) {
+        sql.append(" LIMIT ?");
+    }
+
+    @Override
+    public int[] appendKeysetPredicate(StringBuilder sql, String[] columns, boolean[] descending) {
+        if (columns.length > 1 && uniform(descending)) {
+            return appendRowValuePredicate(sql, columns, descending[0]);
+        }
+        return super.appendKeysetPredicate(sql, columns, descending);
+    }
+
+    @Override
+    public void appendInList(StringBuilder sql, String column, int placeholders) {
+        if (placeholders == 0) {
+            sql.append(column).append(" = ANY(?)");
+        } else {
+            super.appendInList(sql, column, placeholders);
+        }
+    }
+
+    @Override
+    public String upsert(String table, List<String> keyColumns, List<String> columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        appendList(sql, columns, "");
+        sql.append(") VALUES (");
+        appendPlaceholders(sql, columns.size());
+        sql.append(") ON CONFLICT (");
+        appendList(sql, keyColumns, "");
+        if (hasNonKeyColumns(keyColumns, columns)) {
+            sql.append(") DO UPDATE SET ");
+            appendAssignments(sql, keyColumns, columns, "", "EXCLUDED.");
+        } else {
+            sql.append(") DO NOTHING");
+        }
+        return sql.toString();
+    }
+}
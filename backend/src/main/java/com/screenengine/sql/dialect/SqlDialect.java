@@ -0,0 +1,41 @@
+package com.screenengine.sql.dialect;
+
+import java.util.Locale;
+
+/**
+ * Target databases of the SQL engine, selected by screen-engine.sql.dialect.
+ */
+public enum SqlDialect {
+
+    POSTGRESQL(new PostgreSqlGenerator()),
+    ORACLE(new OracleSqlGenerator()),
+    MYSQL(new MySqlGenerator()),
+    SQLSERVER(new SqlServerGenerator());
+
+    private final SqlGenerator generator;
+
+    SqlDialect(SqlGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Default SQL generator of the dialect
+     */
+    public SqlGenerator generator() {
+        return generator;
+    }
+
+    /**
+     * Resolve a configured dialect name, ignoring case
+     */
+    public static SqlDialect of(String name) {
+        if (name == null || name.isBlank()) {
+            return POSTGRESQL;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported SQL dialect: " + name);
+        }
+    }
+}
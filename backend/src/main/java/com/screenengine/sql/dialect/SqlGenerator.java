@@ -0,0 +1,46 @@
+package com.screenengine.sql.dialect;
+
+import java.util.List;
+
+/**
+ * Produces the dialect-specific parts of the SQL engine's statements.
+ * Identifiers passed in are already validated. Generators are stateless and only
+ * run when a template is compiled, never per request. The default generator of
+ * the configured {@link SqlDialect} is used unless a SqlGenerator bean is defined.
+ */
+public interface SqlGenerator {
+
+    /**
+     * True when an IN list is bound as a single array parameter, so the
+     * statement text does not depend on the number of values
+     */
+    boolean supportsArrayBinding();
+
+    /**
+     * Append the clause that limits the rows to one bound parameter, after ORDER BY
+     */
+    void appendRowLimit(StringBuilder sql);
+
+    /**
+     * Append the predicate selecting rows strictly after the cursor in the given order
+     *
+     * @param columns    sort key columns, most significant first
+     * @param descending sort direction of each column
+     * @return for each placeholder in text order, the index of the sort key bound to it
+     */
+    int[] appendKeysetPredicate(StringBuilder sql, String[] columns, boolean[] descending);
+
+    /**
+     * Append {@code column IN (?, ...)} with the given number of placeholders,
+     * or the array form when placeholders is 0
+     */
+    void appendInList(StringBuilder sql, String column, int placeholders);
+
+    /**
+     * Single-row insert-or-update statement. Binds one parameter per column in the given order.
+     *
+     * @param keyColumns columns identifying the row, must be covered by a unique key
+     * @param columns    all columns to write, including the key columns
+     */
+    String upsert(String table, List<String> keyColumns, List<String> columns);
+}
@@ -0,0 +1,26 @@
+package com.screenengine.sql.dialect;
+
+import java.util.List;
+
+/**
+ * SQL Server 2012 and later: OFFSET ... FETCH NEXT, expanded IN lists and MERGE
+ * from a VALUES row. The MERGE holds its key range lock until commit so two
+ * concurrent upserts of one key cannot both insert.
+ */
+public class SqlServerGenerator extends AbstractSqlGenerator {
+
+    @Override
+    public void appendRowLimit(StringBuilder sql) {
+        sql.append(" OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY");
+    }
+
+    @Override
+    public String upsert(String table, List<String> keyColumns, List<String> columns) {
+        StringBuilder source = new StringBuilder("(VALUES (");
+        appendPlaceholders(source, columns.size());
+        source.append(")) AS s (");
+        appendList(source, columns, "");
+        source.append(')');
+        return merge(table, " WITH (HOLDLOCK) AS d", source.toString(), keyColumns, columns) + ";";
+    }
+}
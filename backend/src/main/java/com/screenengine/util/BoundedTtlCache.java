@@ -0,0 +1,251 @@
+package com.screenengine.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded, lock-striped LRU cache with per-entry expiry.
+ * Keys are spread over independent segments, each guarded by its own lock,
+ * so concurrent readers of different keys rarely contend. Every segment is
+ * an access-ordered map that drops its least recently used entry once full.
+ * Hit, miss and eviction statistics are exposed as Micrometer meters.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedTtlCache<K, V> implements MeterBinder {
+
+    private static final int DEFAULT_CONCURRENCY = 16;
+
+    private final String name;
+    private final long ttlMillis;
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlCache(String name, int maximumSize, Duration ttl) {
+        this(name, maximumSize, ttl, DEFAULT_CONCURRENCY);
+    }
+
+    @SuppressWarnings("unchecked") // arrays of a generic type can only be created through a wildcard array
+    public BoundedTtlCache(String name, int maximumSize, Duration ttl, int concurrency) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + name);
+        }
+        this.name = name;
+        this.ttlMillis = ttl.toMillis();
+
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(concurrency, maximumSize)));
+        int segmentSize = Math.max(1, maximumSize / segmentCount);
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentSize, evictions);
+        }
+    }
+
+    /**
+     * Get a value, or null if it is absent or expired
+     */
+    public V get(K key) {
+        V value = segmentFor(key).get(key, System.currentTimeMillis());
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Get a value, loading and caching it on a miss.
+     * The loader runs outside the segment lock; a null result is not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Put a value that expires after the default time-to-live
+     */
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * Put a value that expires at the given epoch millisecond
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        segmentFor(key).put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    /**
+     * Remove a value, returning it if it was present
+     */
+    public V invalidate(K key) {
+        return segmentFor(key).remove(key);
+    }
+
+    /**
+     * Remove all values
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Drop expired entries from every segment
+     */
+    public void cleanUp() {
+        long now = System.currentTimeMillis();
+        for (Segment<K, V> segment : segments) {
+            segment.removeExpired(now);
+        }
+    }
+
+    /**
+     * Current number of entries, including not yet collected expired ones
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", name).tag("result", "hit")
+                .description("Cache lookups that found a live entry")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", name).tag("result", "miss")
+                .description("Cache lookups that found no live entry")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", name)
+                .description("Entries evicted because the cache was full")
+                .register(registry);
+        Gauge.builder("cache.size", this, BoundedTtlCache::size)
+                .tag("cache", name)
+                .description("Number of entries in the cache")
+                .register(registry);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (segments.length - 1)];
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Segment<K, V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        Segment(int maximumSize, LongAdder evictions) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > maximumSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        V get(K key, long now) {
+            lock.lock();
+            try {
+                Entry<V> entry = map.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiresAt() <= now) {
+                    map.remove(key);
+                    return null;
+                }
+                return entry.value();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(K key, Entry<V> entry) {
+            lock.lock();
+            try {
+                map.put(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        V remove(K key) {
+            lock.lock();
+            try {
+                Entry<V> entry = map.remove(key);
+                return entry != null ? entry.value() : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                map.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void removeExpired(long now) {
+            lock.lock();
+            try {
+                Iterator<Entry<V>> it = map.values().iterator();
+                while (it.hasNext()) {
+                    if (it.next().expiresAt() <= now) {
+                        it.remove();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.screenengine.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free event counter over a sliding time window.
+ * The window is split into a ring of buckets; each bucket holds the epoch it
+ * was last written in together with its count, packed into one long, so a
+ * stale bucket is reset and counted in the same compare-and-set and no event
+ * can be lost to a concurrent reset. Stale buckets are skipped on read.
+ * Counts are approximate at bucket granularity and saturate at about two
+ * million events per bucket.
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 21;
+    private static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
+
+    private final int buckets;
+    private final long bucketMillis;
+    private final AtomicLongArray slots;
+
+    /**
+     * @param windowMillis length of the window
+     * @param buckets      number of buckets the window is split into
+     */
+    public SlidingWindowCounter(long windowMillis, int buckets) {
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * Count one event and return the total within the window
+     */
+    public long increment(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int index = (int) (epoch % buckets);
+
+        while (true) {
+            long slot = slots.get(index);
+            long next;
+            if (epochOf(slot) < epoch) {
+                next = pack(epoch, 1);
+            } else if (countOf(slot) < MAX_COUNT) {
+                // A caller with a slightly older clock counts into the newer bucket
+                next = slot + 1;
+            } else {
+                break;
+            }
+            if (slots.compareAndSet(index, slot, next)) {
+                break;
+            }
+        }
+        return sum(nowMillis);
+    }
+
+    /**
+     * Total number of events within the window
+     */
+    public long sum(long nowMillis) {
+        long oldest = nowMillis / bucketMillis - buckets + 1;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            long slot = slots.get(i);
+            if (epochOf(slot) >= oldest) {
+                total += countOf(slot);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Milliseconds until the oldest counted event leaves the window, or 0 when empty
+     */
+    public long millisUntilDecay(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < buckets; i++) {
+            long slot = slots.get(i);
+            long epoch = epochOf(slot);
+            if (epoch > current - buckets && countOf(slot) > 0) {
+                oldest = Math.min(oldest, epoch);
+            }
+        }
+        return oldest == Long.MAX_VALUE ? 0 : (oldest + buckets) * bucketMillis - nowMillis;
+    }
+
+    /**
+     * Forget all events
+     */
+    public void reset() {
+        for (int i = 0; i < buckets; i++) {
+            slots.set(i, 0);
+        }
+    }
+
+    private static long pack(long epoch, long count) {
+        return epoch << COUNT_BITS | count;
+    }
+
+    private static long epochOf(long slot) {
+        return slot >>> COUNT_BITS;
+    }
+
+    private static long countOf(long slot) {
+        return slot & MAX_COUNT;
+    }
+}
@@ -0,0 +1,53 @@
+package com.screenengine.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket with lazy refill.
+ * Implemented as GCRA: the only state is the theoretical arrival time of the
+ * next request, advanced with a CAS, so there is no refill thread and no lock.
+ * A bucket whose arrival time is in the past is full and can be dropped.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param capacity        maximum burst size
+     * @param refillPerSecond tokens added per second
+     */
+    public TokenBucket(int capacity, double refillPerSecond) {
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+    }
+
+    /**
+     * Take one token.
+     *
+     * @return 0 when a token was taken, otherwise nanoseconds until one is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = arrival.get();
+            long start = current == Long.MIN_VALUE || current - nowNanos < 0 ? nowNanos : current;
+            long next = start + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * True when the bucket has been full since before the given time
+     */
+    public boolean isIdleSince(long nanos) {
+        long current = arrival.get();
+        return current == Long.MIN_VALUE || current - nanos < 0;
+    }
+}
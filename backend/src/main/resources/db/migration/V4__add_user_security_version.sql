@@ -0,0 +1,11 @@
+-- User Security Version
+-- Version: 1.0.0
+-- Description: Adds a per-user security version used to revoke stateless JWTs
+
+-- =============================================================================
+-- 1. T_USER.SECURITY_VERSION
+-- =============================================================================
+ALTER TABLE t_user ADD COLUMN security_version INTEGER DEFAULT 0 NOT NULL;
+
+-- Comments for T_USER.SECURITY_VERSION
+COMMENT ON COLUMN t_user.security_version IS 'Incremented when status, roles or identity change; older tokens are rejected';
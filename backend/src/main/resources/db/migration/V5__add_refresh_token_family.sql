@@ -0,0 +1,22 @@
+-- Refresh Token Rotation
+-- Version: 1.0.0
+-- Description: Stores refresh tokens as SHA-256 digests grouped into rotation families
+
+-- =============================================================================
+-- 1. T_REFRESH_TOKEN.FAMILY_ID / ROTATED_AT
+-- =============================================================================
+ALTER TABLE t_refresh_token ADD COLUMN family_id UUID;
+ALTER TABLE t_refresh_token ADD COLUMN rotated_at TIMESTAMP;
+
+-- Rows from before this version hold plaintext tokens that can never match a digest
+DELETE FROM t_refresh_token;
+ALTER TABLE t_refresh_token ALTER COLUMN family_id SET NOT NULL;
+
+-- Indexes for T_REFRESH_TOKEN (the UNIQUE constraint on token already indexes it)
+DROP INDEX IF EXISTS idx_refresh_token_token;
+CREATE INDEX idx_refresh_token_family ON t_refresh_token(family_id);
+
+-- Comments for T_REFRESH_TOKEN
+COMMENT ON COLUMN t_refresh_token.token IS 'SHA-256 hex digest of the refresh token';
+COMMENT ON COLUMN t_refresh_token.family_id IS 'Rotation family shared by every token descending from one login';
+COMMENT ON COLUMN t_refresh_token.rotated_at IS 'When the token was exchanged for its successor; reuse after that revokes the family';
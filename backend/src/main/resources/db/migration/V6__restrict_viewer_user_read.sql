@@ -0,0 +1,11 @@
+-- Restrict Viewer Role
+-- Version: 1.0.0
+-- Description: Removes USER_READ from ROLE_VIEWER now that user endpoints check permissions instead of ROLE_ADMIN
+
+-- =============================================================================
+-- 1. T_ROLE_PERMISSION
+-- =============================================================================
+-- Viewers only need screens; with USER_READ they could list and read every user
+DELETE FROM t_role_permission
+WHERE role_id = (SELECT role_id FROM t_role WHERE role_code = 'ROLE_VIEWER')
+  AND permission_id = (SELECT permission_id FROM t_permission WHERE permission_code = 'USER_READ');
@@ -0,0 +1,71 @@
+package com.screenengine.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the screen data pool and its fallback to the metadata pool.
+ */
+class DataSourceConfigTest {
+
+    private final DataSourceConfig config = new DataSourceConfig();
+
+    @Test
+    void configuresTheScreenDataPoolFromProperties() {
+        ScreenEngineProperties properties = new ScreenEngineProperties();
+        ScreenEngineProperties.DataDatasource data = properties.getDataDatasource();
+        data.setUrl("jdbc:postgresql://erp:5432/erp");
+        data.setUsername("reader");
+        ScreenEngineProperties.HikariConfig hikari = data.getHikari();
+        hikari.setPoolName("ScreenDataPool");
+        hikari.setMaximumPoolSize(8);
+        hikari.setMinimumIdle(2);
+        hikari.setLeakDetectionThreshold(60000);
+        hikari.setDataSourceProperties(Map.of("prepareThreshold", "1"));
+
+        try (HikariDataSource pool = config.screenDataSource(properties)) {
+            assertThat(pool.getJdbcUrl()).isEqualTo("jdbc:postgresql://erp:5432/erp");
+            assertThat(pool.getUsername()).isEqualTo("reader");
+            assertThat(pool.getPoolName()).isEqualTo("ScreenDataPool");
+            assertThat(pool.getMaximumPoolSize()).isEqualTo(8);
+            assertThat(pool.getMinimumIdle()).isEqualTo(2);
+            assertThat(pool.getLeakDetectionThreshold()).isEqualTo(60000L);
+            assertThat(pool.isReadOnly()).isTrue();
+            assertThat(pool.getDataSourceProperties()).containsEntry("prepareThreshold", "1");
+        }
+    }
+
+    @Test
+    void fallsBackToTheMetadataPoolWithTheQueryTimeout() {
+        ScreenEngineProperties properties = new ScreenEngineProperties();
+        properties.getSql().setQueryTimeout(12);
+        DataSource metadata = new DriverManagerDataSource();
+
+        JdbcTemplate jdbcTemplate = config.dataJdbcTemplate(
+                new StaticListableBeanFactory().getBeanProvider(DataSource.class), metadata, properties);
+
+        assertThat(jdbcTemplate.getDataSource()).isSameAs(metadata);
+        assertThat(jdbcTemplate.getQueryTimeout()).isEqualTo(12);
+        assertThat(config.dataTransactionManager(new StaticListableBeanFactory().getBeanProvider(DataSource.class), metadata)
+                .getDataSource()).isSameAs(metadata);
+    }
+
+    @Test
+    void usesTheScreenDataPoolWhenEnabled() {
+        DataSource data = new DriverManagerDataSource();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of(DataSourceConfig.DATA_DATA_SOURCE, data));
+
+        JdbcTemplate jdbcTemplate = config.dataJdbcTemplate(beans.getBeanProvider(DataSource.class),
+                new DriverManagerDataSource(), new ScreenEngineProperties());
+
+        assertThat(jdbcTemplate.getDataSource()).isSameAs(data);
+    }
+}
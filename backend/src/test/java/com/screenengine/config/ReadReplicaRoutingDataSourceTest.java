@@ -0,0 +1,202 @@
+package com.screenengine.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for routing read-only connections to replicas and falling back to the primary.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private final StubDatabase primary = new StubDatabase();
+    private final List<ReadReplicaRoutingDataSource> routers = new ArrayList<>();
+
+    @AfterEach
+    void closePools() {
+        routers.forEach(ReadReplicaRoutingDataSource::close);
+    }
+
+    @Test
+    void servesConnectionsFromAReplicaWithinMaxLag() throws SQLException {
+        StubDatabase replica = new StubDatabase();
+        replica.lag = 3.0;
+
+        try (Connection connection = router(replica).getConnection()) {
+            assertThat(connection).isNotNull();
+        }
+
+        assertThat(replica.connections.get()).isPositive();
+        assertThat(primary.connections.get()).isZero();
+    }
+
+    @Test
+    void readsFromThePrimaryWhenTheReplicaTrailsTooFar() throws SQLException {
+        StubDatabase replica = new StubDatabase();
+        replica.lag = 60.0;
+
+        router(replica).getConnection().close();
+
+        assertThat(primary.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    void readsFromThePrimaryWhenTheWalReceiverIsDisconnected() throws SQLException {
+        StubDatabase replica = new StubDatabase();
+        replica.lag = Double.POSITIVE_INFINITY;
+
+        router(replica).getConnection().close();
+
+        assertThat(primary.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    void readsFromThePrimaryWhenTheLagIsUnknown() throws SQLException {
+        StubDatabase replica = new StubDatabase();
+        replica.lag = null;
+
+        router(replica).getConnection().close();
+
+        assertThat(primary.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    void readsFromThePrimaryWhenTheReplicaIsDown() throws SQLException {
+        StubDatabase replica = new StubDatabase();
+        replica.down = true;
+
+        router(replica).getConnection().close();
+
+        assertThat(primary.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failsOverWhenAUsableReplicaRefusesAConnection() throws SQLException {
+        StubDatabase replica = new StubDatabase();
+        ReadReplicaRoutingDataSource router = router(replica);
+        router.getConnection().close();
+        assertThat(primary.connections.get()).isZero();
+
+        replica.pool.close();
+        router.getConnection().close();
+        router.getConnection().close();
+
+        assertThat(primary.connections.get()).isEqualTo(2);
+    }
+
+    @Test
+    void takesAReplicaBackOnceItCatchesUp() throws SQLException {
+        StubDatabase replica = new StubDatabase();
+        replica.lag = 60.0;
+        ReadReplicaRoutingDataSource router = router(replica);
+
+        replica.lag = 0.0;
+        router.checkReplicas();
+        router.getConnection().close();
+
+        assertThat(primary.connections.get()).isZero();
+    }
+
+    private ReadReplicaRoutingDataSource router(StubDatabase replica) {
+        ScreenEngineProperties.ReadReplicas config = new ScreenEngineProperties.ReadReplicas();
+        config.setMaxLag(10);
+        ReadReplicaRoutingDataSource router = new ReadReplicaRoutingDataSource(primary.dataSource(), List.of(replica.pool()), config);
+        routers.add(router);
+        return router;
+    }
+
+    /**
+     * A database answering the lag query with a settable value
+     */
+    private static final class StubDatabase {
+        final AtomicInteger connections = new AtomicInteger();
+        volatile Double lag = 0.0;
+        volatile boolean down;
+        HikariDataSource pool;
+
+        DataSource dataSource() {
+            return proxy(DataSource.class, (method, args) -> {
+                if (method.equals("getConnection")) {
+                    if (down) {
+                        throw new SQLException("Connection refused");
+                    }
+                    connections.incrementAndGet();
+                    return proxy(Connection.class, this::connection);
+                }
+                return null;
+            });
+        }
+
+        HikariDataSource pool() {
+            pool = new HikariDataSource();
+            pool.setDataSource(dataSource());
+            pool.setPoolName("ReplicaPool-test");
+            pool.setMaximumPoolSize(2);
+            pool.setMinimumIdle(0);
+            pool.setConnectionTimeout(250);
+            pool.setInitializationFailTimeout(-1);
+            return pool;
+        }
+
+        private Object connection(String method, Object[] args) {
+            return switch (method) {
+                case "isValid" -> true;
+                case "createStatement" -> proxy(Statement.class, (statementMethod, statementArgs) ->
+                        statementMethod.equals("executeQuery") ? lagRow() : null);
+                default -> null;
+            };
+        }
+
+        private ResultSet lagRow() {
+            boolean[] read = {false};
+            return proxy(ResultSet.class, (method, args) -> switch (method) {
+                case "next" -> {
+                    boolean first = !read[0];
+                    read[0] = true;
+                    yield first;
+                }
+                case "getDouble" -> lag == null ? 0.0 : lag;
+                case "wasNull" -> lag == null;
+                default -> null;
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = handler.handle(method.getName(), args);
+            if (result != null || !method.getReturnType().isPrimitive()) {
+                return result;
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == void.class) {
+                return null;
+            }
+            if (returnType == long.class) {
+                return 0L;
+            }
+            return returnType == double.class ? (Object) 0.0 : (Object) 0;
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.screenengine.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for parsing kodlu_alan text.
+ */
+class CodedValueTest {
+
+    @Test
+    void parsesCodeLabelPairs() {
+        assertThat(CodedValue.parseList("A=Active;P=Passive")).containsExactly(
+                new CodedValue("A", "Active"),
+                new CodedValue("P", "Passive"));
+    }
+
+    @Test
+    void skipsEmptyEntriesAndTrims() {
+        assertThat(CodedValue.parseList(" A = Active ;; ;P=Passive;;")).containsExactly(
+                new CodedValue("A", "Active"),
+                new CodedValue("P", "Passive"));
+    }
+
+    @Test
+    void usesTheCodeAsLabelWithoutSeparator() {
+        assertThat(CodedValue.parseList("KG;ADET")).containsExactly(
+                new CodedValue("KG", "KG"),
+                new CodedValue("ADET", "ADET"));
+    }
+
+    @Test
+    void keepsSeparatorsInsideLabels() {
+        assertThat(CodedValue.parseList("1=a=b")).containsExactly(new CodedValue("1", "a=b"));
+    }
+
+    @Test
+    void returnsEmptyListForMissingText() {
+        assertThat(CodedValue.parseList(null)).isEmpty();
+        assertThat(CodedValue.parseList("  ")).isEmpty();
+    }
+}
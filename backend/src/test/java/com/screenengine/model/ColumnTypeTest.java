@@ -0,0 +1,49 @@
+package com.screenengine.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for parsing column and table type codes.
+ */
+class ColumnTypeTest {
+
+    private final Locale defaultLocale = Locale.getDefault();
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void parsesColumnTypesIgnoringCaseAndBlanks() {
+        assertThat(ColumnType.of("STR")).isEqualTo(ColumnType.STR);
+        assertThat(ColumnType.of(" date ")).isEqualTo(ColumnType.DATE);
+        assertThatThrownBy(() -> ColumnType.of("TEXT")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ColumnType.of(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsesLowerCaseCodesUnderATurkishDefaultLocale() {
+        // Turkish upper-cases "i" to a dotted capital, which no type code contains
+        Locale.setDefault(new Locale("tr", "TR"));
+
+        assertThat(ColumnType.of("int")).isEqualTo(ColumnType.INT);
+        assertThat(ColumnType.of("big")).isEqualTo(ColumnType.BIG);
+        assertThat(ColumnType.of("join")).isEqualTo(ColumnType.JOIN);
+        assertThat(TableType.of("tr")).isEqualTo(TableType.TREE);
+        assertThat(TableType.of("ms")).isEqualTo(TableType.MASTER);
+    }
+
+    @Test
+    void treatsAMissingTableTypeAsStandard() {
+        assertThat(TableType.of(null)).isEqualTo(TableType.STANDARD);
+        assertThat(TableType.of(" c ")).isEqualTo(TableType.COMPLEX);
+        assertThatThrownBy(() -> TableType.of("X")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
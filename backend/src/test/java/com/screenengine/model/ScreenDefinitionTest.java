@@ -0,0 +1,56 @@
+package com.screenengine.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for screen-level access of factories and role grants.
+ */
+class ScreenDefinitionTest {
+
+    @Test
+    void opensUnrestrictedScreensToEveryone() {
+        ScreenDefinition screen = screen(null, List.of());
+
+        assertThat(screen.isAccessibleBy(List.of("ROLE_USER"), 101L)).isTrue();
+        assertThat(screen.isAccessibleBy(List.of(), null)).isTrue();
+    }
+
+    @Test
+    void limitsFactoryScreensToThatFactory() {
+        ScreenDefinition screen = screen(101L, List.of());
+
+        assertThat(screen.isAccessibleBy(List.of("ROLE_USER"), 101L)).isTrue();
+        assertThat(screen.isAccessibleBy(List.of("ROLE_USER"), 102L)).isFalse();
+        assertThat(screen.isAccessibleBy(List.of("ROLE_USER"), null)).isFalse();
+    }
+
+    @Test
+    void requiresAGrantedRoleWhenTheScreenHasGrants() {
+        ScreenDefinition screen = screen(null, List.of(ScreenGrant.of("manager", null), ScreenGrant.of("ROLE_USER", 102L)));
+
+        assertThat(screen.isAccessibleBy(List.of("ROLE_VIEWER", "ROLE_MANAGER"), 101L)).isTrue();
+        assertThat(screen.isAccessibleBy(List.of("ROLE_VIEWER"), 101L)).isFalse();
+        assertThat(screen.isAccessibleBy(List.of("ROLE_USER"), 101L)).isFalse();
+        assertThat(screen.isAccessibleBy(List.of("ROLE_USER"), 102L)).isTrue();
+    }
+
+    @Test
+    void normalizesStoredRoleNames() {
+        assertThat(ScreenGrant.of(" admin ", null)).isEqualTo(new ScreenGrant("ROLE_ADMIN", null));
+        assertThat(ScreenGrant.of("ROLE_ADMIN", 5L)).isEqualTo(new ScreenGrant("ROLE_ADMIN", 5L));
+    }
+
+    private static ScreenDefinition screen(Long fabrikaKod, List<ScreenGrant> grants) {
+        return ScreenDefinition.builder()
+                .ekranKod("STOK")
+                .fabrikaKod(fabrikaKod)
+                .active(true)
+                .tables(List.of())
+                .grants(grants)
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.screenengine.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the screen metadata version string.
+ */
+class ScreenMetadataRepositoryTest {
+
+    private static final LocalDateTime EDITED = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000);
+
+    @Test
+    void combinesNewestUpdateWithTableColumnAndGrantCounts() {
+        assertThat(ScreenMetadataRepository.version(EDITED, 2, 14, 1)).isEqualTo("2024-03-01T10:15:30.123456:2:14:1");
+    }
+
+    @Test
+    void changesWhenRowsOrGrantsAreAddedOrRemovedWithoutNewerUpdate() {
+        String version = ScreenMetadataRepository.version(EDITED, 2, 14, 1);
+
+        assertThat(ScreenMetadataRepository.version(EDITED, 2, 13, 1)).isNotEqualTo(version);
+        assertThat(ScreenMetadataRepository.version(EDITED, 1, 14, 1)).isNotEqualTo(version);
+        assertThat(ScreenMetadataRepository.version(EDITED, 2, 14, 0)).isNotEqualTo(version);
+    }
+
+    @Test
+    void keepsTheNewestTimestamp() {
+        LocalDateTime older = EDITED.minusDays(1);
+
+        assertThat(ScreenMetadataRepository.latest(older, EDITED)).isEqualTo(EDITED);
+        assertThat(ScreenMetadataRepository.latest(EDITED, older)).isEqualTo(EDITED);
+        assertThat(ScreenMetadataRepository.latest(EDITED, null)).isEqualTo(EDITED);
+        assertThat(ScreenMetadataRepository.latest(null, EDITED)).isEqualTo(EDITED);
+    }
+
+    @Test
+    void handlesScreensWithoutTimestamps() {
+        assertThat(ScreenMetadataRepository.version(null, 0, 0, 0)).isEqualTo("null:0:0:0");
+    }
+}
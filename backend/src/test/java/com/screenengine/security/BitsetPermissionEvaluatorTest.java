@@ -0,0 +1,244 @@
+package com.screenengine.security;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.model.Role;
+import com.screenengine.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for permission checks against the bitsets compiled by the role catalog.
+ */
+class BitsetPermissionEvaluatorTest {
+
+    private final RoleTables tables = RoleTables.seeded();
+    private final RoleCatalog catalog = catalog(tables);
+    private final BitsetPermissionEvaluator evaluator = new BitsetPermissionEvaluator(catalog);
+
+    @Test
+    void assignsDenseIdsInPermissionIdOrder() {
+        assertThat(catalog.permissionId("USER_READ")).isEqualTo(0);
+        assertThat(catalog.permissionId("USER_UPDATE")).isEqualTo(1);
+        assertThat(catalog.permissionId("USER_DELETE")).isEqualTo(2);
+        assertThat(catalog.permissionId("SCREEN_READ")).isEqualTo(3);
+        assertThat(catalog.permissionId("NO_SUCH_PERMISSION")).isEqualTo(-1);
+    }
+
+    @Test
+    void grantsWhatTheRolesOfThePrincipalHold() {
+        Authentication admin = authenticate("ROLE_ADMIN");
+        Authentication viewer = authenticate("ROLE_VIEWER");
+
+        assertThat(evaluator.hasPermission(admin, null, "USER_READ")).isTrue();
+        assertThat(evaluator.hasPermission(admin, null, "USER_DELETE")).isTrue();
+        assertThat(evaluator.hasPermission(viewer, null, "SCREEN_READ")).isTrue();
+        assertThat(evaluator.hasPermission(viewer, null, "USER_READ")).isFalse();
+        assertThat(evaluator.hasPermission(viewer, 7L, "t_user", "USER_READ")).isFalse();
+        assertThat(evaluator.hasPermission(admin, 7L, "t_user", "USER_READ")).isTrue();
+    }
+
+    @Test
+    void unionsTheBitsetsOfSeveralRoles() {
+        Authentication both = authenticate("ROLE_VIEWER", "ROLE_EDITOR");
+
+        assertThat(evaluator.hasPermission(both, null, "SCREEN_READ")).isTrue();
+        assertThat(evaluator.hasPermission(both, null, "USER_UPDATE")).isTrue();
+        assertThat(evaluator.hasPermission(both, null, "USER_DELETE")).isFalse();
+    }
+
+    @Test
+    void ignoresGrantsOfInactiveRoles() {
+        Authentication retired = authenticate("ROLE_RETIRED");
+
+        assertThat(evaluator.hasPermission(retired, null, "USER_DELETE")).isFalse();
+        assertThat(catalog.getPermissionCodes(4L)).containsExactly("USER_DELETE");
+    }
+
+    @Test
+    void deniesUnknownPermissionsAndForeignPrincipals() {
+        Authentication admin = authenticate("ROLE_ADMIN");
+
+        assertThat(evaluator.hasPermission(admin, null, "NO_SUCH_PERMISSION")).isFalse();
+        assertThat(evaluator.hasPermission(admin, null, 3)).isFalse();
+        assertThat(evaluator.hasPermission(null, null, "USER_READ")).isFalse();
+        assertThat(evaluator.hasPermission(new UsernamePasswordAuthenticationToken("ayse", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))), null, "USER_READ")).isFalse();
+    }
+
+    @Test
+    void keepsThePermissionsVersionWhenNothingChanged() {
+        String version = catalog.getPermissionsVersion();
+
+        catalog.refresh();
+
+        assertThat(catalog.getPermissionsVersion()).isEqualTo(version);
+        assertThat(version).isNotEmpty();
+    }
+
+    @Test
+    void changesThePermissionsVersionWhenAGrantChanges() {
+        String version = catalog.getPermissionsVersion();
+
+        tables.grants.add(new long[]{2, 10});
+        catalog.refreshIfChanged();
+
+        assertThat(catalog.getPermissionsVersion()).isNotEqualTo(version);
+        assertThat(evaluator.hasPermission(authenticate("ROLE_VIEWER"), null, "USER_READ")).isTrue();
+    }
+
+    @Test
+    void keepsThePermissionsVersionWhenOnlyAnInactiveRoleChanges() {
+        String version = catalog.getPermissionsVersion();
+
+        tables.grants.add(new long[]{4, 10});
+        catalog.refreshIfChanged();
+
+        assertThat(catalog.getPermissionsVersion()).isEqualTo(version);
+    }
+
+    private Authentication authenticate(String... roleCodes) {
+        UserPrincipal principal = principal(roleCodes);
+        principal = principal.withPermissionBits(catalog.permissionBits(principal.getAuthorities()));
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    /**
+     * Principal for "ayse" holding the given roles, without a permission bitset
+     */
+    static UserPrincipal principal(String... roleCodes) {
+        Set<Role> roles = new HashSet<>();
+        for (String roleCode : roleCodes) {
+            roles.add(Role.builder().roleCode(roleCode).active(1).build());
+        }
+        User user = User.builder()
+                .userId(7L)
+                .username("ayse")
+                .active(1)
+                .locked(0)
+                .passwordExpired(0)
+                .securityVersion(0)
+                .build();
+        return UserPrincipal.create(user, roles);
+    }
+
+    /**
+     * Catalog loaded from the given tables
+     */
+    static RoleCatalog catalog(RoleTables tables) {
+        PrincipalCache principalCache = new PrincipalCache(new ScreenEngineProperties(),
+                new SecurityVersionRegistry(new JdbcTemplate()));
+        RoleCatalog catalog = new RoleCatalog(tables, principalCache);
+        catalog.init();
+        return catalog;
+    }
+
+    /**
+     * In-memory t_role, t_permission and t_role_permission answering the catalog queries
+     */
+    static final class RoleTables extends JdbcTemplate {
+        final List<Map<String, Object>> roles = new ArrayList<>();
+        final List<Map<String, Object>> permissions = new ArrayList<>();
+        final List<long[]> grants = new ArrayList<>();
+
+        /**
+         * Admin holds every user permission, the editor may update users, the viewer
+         * reads screens and the inactive retired role still has a delete grant
+         */
+        static RoleTables seeded() {
+            RoleTables tables = new RoleTables();
+            tables.role(1, "ROLE_ADMIN", 1);
+            tables.role(2, "ROLE_VIEWER", 1);
+            tables.role(3, "ROLE_EDITOR", 1);
+            tables.role(4, "ROLE_RETIRED", 0);
+            tables.permission(10, "USER_READ");
+            tables.permission(11, "USER_UPDATE");
+            tables.permission(12, "USER_DELETE");
+            tables.permission(20, "SCREEN_READ");
+            tables.grants.add(new long[]{1, 10});
+            tables.grants.add(new long[]{1, 11});
+            tables.grants.add(new long[]{1, 12});
+            tables.grants.add(new long[]{2, 20});
+            tables.grants.add(new long[]{3, 11});
+            tables.grants.add(new long[]{4, 12});
+            return tables;
+        }
+
+        void role(long roleId, String roleCode, int active) {
+            roles.add(Map.of("role_id", roleId, "role_code", roleCode, "role_name", roleCode, "active", active));
+        }
+
+        void permission(long permissionId, String permissionCode) {
+            permissions.add(Map.of("permission_id", permissionId, "permission_code", permissionCode,
+                    "permission_name", permissionCode));
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            StringBuilder fingerprint = new StringBuilder().append(roles).append('#').append(permissions).append('#');
+            for (long[] grant : grants) {
+                fingerprint.append(grant[0]).append(':').append(grant[1]).append(',');
+            }
+            return requiredType.cast(fingerprint.toString());
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper) {
+            List<Map<String, Object>> rows = sql.contains("FROM t_role") ? roles : permissions;
+            List<T> mapped = new ArrayList<>();
+            for (Map<String, Object> row : rows) {
+                try {
+                    mapped.add(rowMapper.mapRow(resultSet(row), mapped.size()));
+                } catch (SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+            return mapped;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch) {
+            for (long[] grant : grants) {
+                Object code = null;
+                for (Map<String, Object> permission : permissions) {
+                    if (((Long) permission.get("permission_id")) == grant[1]) {
+                        code = permission.get("permission_code");
+                    }
+                }
+                try {
+                    rch.processRow(resultSet(Map.of("role_id", grant[0], "permission_code", code)));
+                } catch (SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+
+        private static ResultSet resultSet(Map<String, Object> row) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        Object value = row.get((String) args[0]);
+                        return switch (method.getName()) {
+                            case "getLong" -> value != null ? ((Number) value).longValue() : 0L;
+                            case "getInt" -> value != null ? ((Number) value).intValue() : 0;
+                            case "getString" -> value;
+                            default -> null;
+                        };
+                    });
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.screenengine.security;
+
+import com.screenengine.config.ScreenEngineProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for trusting the permission bitset claim only under the current permissions version.
+ */
+class JwtAuthenticationFilterTest {
+
+    private final ScreenEngineProperties properties = new ScreenEngineProperties();
+    private final BitsetPermissionEvaluatorTest.RoleTables tables = BitsetPermissionEvaluatorTest.RoleTables.seeded();
+    private final RoleCatalog catalog = BitsetPermissionEvaluatorTest.catalog(tables);
+    private final SecurityVersionRegistry registry = new SecurityVersionRegistry(new JdbcTemplate());
+    private final Map<String, Object> claims = new HashMap<>();
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+            new JwtTokenProvider(properties, registry, catalog) {
+                @Override
+                public TokenVerification verify(String token) {
+                    return "signed".equals(token)
+                            ? TokenVerification.valid(VerifiedToken.from(UserPrincipalTest.claims(claims)))
+                            : TokenVerification.failure(TokenVerification.Status.INVALID_SIGNATURE);
+                }
+            },
+            null, registry, catalog, properties);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void trustsTheBitsetClaimUnderTheCurrentVersion() throws Exception {
+        // A viewer token claiming USER_READ is taken as issued while pv matches
+        viewerToken(catalog.getPermissionsVersion(), "USER_READ", "SCREEN_READ");
+
+        UserPrincipal principal = authenticate();
+
+        assertThat(principal.hasPermission(catalog.permissionId("USER_READ"))).isTrue();
+        assertThat(principal.hasPermission(catalog.permissionId("SCREEN_READ"))).isTrue();
+    }
+
+    @Test
+    void recompilesTheBitsetUnderAStaleVersion() throws Exception {
+        viewerToken(catalog.getPermissionsVersion(), "USER_READ", "SCREEN_READ");
+        tables.grants.add(new long[]{3, 12});
+        catalog.refreshIfChanged();
+
+        UserPrincipal principal = authenticate();
+
+        assertThat(principal.hasPermission(catalog.permissionId("USER_READ"))).isFalse();
+        assertThat(principal.hasPermission(catalog.permissionId("SCREEN_READ"))).isTrue();
+    }
+
+    @Test
+    void compilesTheBitsetWhenTheTokenHasNone() throws Exception {
+        viewerToken(null);
+
+        UserPrincipal principal = authenticate();
+
+        assertThat(principal.hasPermission(catalog.permissionId("SCREEN_READ"))).isTrue();
+        assertThat(principal.hasPermission(catalog.permissionId("USER_READ"))).isFalse();
+    }
+
+    @Test
+    void rejectsATokenIssuedBeforeASecurityVersionBump() throws Exception {
+        viewerToken(catalog.getPermissionsVersion(), "SCREEN_READ");
+        claims.put(JwtTokenProvider.CLAIM_SECURITY_VERSION, -1);
+
+        filter.doFilterInternal(request("signed"), response(), (req, res) -> { });
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void ignoresTokensThatFailVerification() throws Exception {
+        viewerToken(catalog.getPermissionsVersion(), "SCREEN_READ");
+
+        filter.doFilterInternal(request("forged"), response(), (req, res) -> { });
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void decodesTheBitsetClaimItEncodes() {
+        long[] bits = UserPrincipalTest.bits(3, 70);
+
+        assertThat(JwtTokenProvider.decodePermissionBits(JwtTokenProvider.encodePermissionBits(bits)))
+                .containsExactly(1L << 3, 1L << 6);
+        assertThat(JwtTokenProvider.decodePermissionBits("AAAA")).isNull();
+        assertThat(JwtTokenProvider.decodePermissionBits("not base64!")).isNull();
+    }
+
+    /**
+     * Claims of a stateless token for a viewer, with a bitset of the given codes
+     * compiled under the given permissions version
+     */
+    private void viewerToken(String permissionsVersion, String... permissionCodes) {
+        claims.put(JwtTokenProvider.CLAIM_USER_ID, 7L);
+        claims.put(JwtTokenProvider.CLAIM_ROLES, List.of("ROLE_VIEWER"));
+        claims.put(JwtTokenProvider.CLAIM_ENABLED, true);
+        claims.put(JwtTokenProvider.CLAIM_SECURITY_VERSION, 0);
+        if (permissionsVersion != null) {
+            long[] bits = new long[1];
+            for (String code : permissionCodes) {
+                bits[0] |= 1L << catalog.permissionId(code);
+            }
+            claims.put(JwtTokenProvider.CLAIM_PERMISSIONS, JwtTokenProvider.encodePermissionBits(bits));
+            claims.put(JwtTokenProvider.CLAIM_PERMISSIONS_VERSION, permissionsVersion);
+        }
+    }
+
+    private UserPrincipal authenticate() throws Exception {
+        filter.doFilterInternal(request("signed"), response(), (req, res) -> { });
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        return (UserPrincipal) authentication.getPrincipal();
+    }
+
+    private static HttpServletRequest request(String token) {
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> "getHeader".equals(method.getName()) && "Authorization".equals(args[0])
+                        ? "Bearer " + token
+                        : null);
+    }
+
+    private static HttpServletResponse response() {
+        return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> null);
+    }
+}
@@ -0,0 +1,117 @@
+package com.screenengine.security;
+
+import com.screenengine.config.ScreenEngineProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the password hashing pool: ordering, busy rejection and imports next to logins.
+ */
+class PasswordHashingPoolTest {
+
+    private final List<PasswordHashingPool> pools = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        pools.forEach(PasswordHashingPool::shutdown);
+    }
+
+    @Test
+    void encodesAllPasswordsInOrder() {
+        PasswordHashingPool pool = pool(4, 3, 250);
+        List<String> raw = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            raw.add("secret-" + i);
+        }
+
+        List<String> encoded = pool.encodeAll(raw);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        assertThat(encoded).hasSize(10);
+        for (int i = 0; i < raw.size(); i++) {
+            assertThat(bcrypt.matches(raw.get(i), encoded.get(i))).isTrue();
+            assertThat(bcrypt.matches(raw.get((i + 1) % raw.size()), encoded.get(i))).isFalse();
+        }
+        assertThat(pool.encodeAll(List.of())).isEmpty();
+    }
+
+    @Test
+    void servesALoginWhileAnImportIsHashing() {
+        PasswordHashingPool pool = pool(10, 1, 1000);
+        String stored = new BCryptPasswordEncoder(10).encode("secret");
+
+        // One login thread and one bulk thread; the import keeps its thread busy for seconds
+        CompletableFuture<List<String>> importing = CompletableFuture.supplyAsync(
+                () -> pool.encodeAll(Collections.nCopies(20, "imported")));
+        sleep(100);
+
+        assertThat(pool.matches("secret", stored)).isTrue();
+        assertThat(pool.matches("wrong", stored)).isFalse();
+        assertThat(importing.isDone()).isFalse();
+
+        importing.cancel(true);
+    }
+
+    @Test
+    void rejectsRequestsThatCannotBeServedWithinTheTimeout() {
+        PasswordHashingPool pool = pool(12, 1, 1);
+
+        assertThatThrownBy(() -> pool.encode("secret"))
+                .isInstanceOf(PasswordHashingBusyException.class)
+                .hasMessageContaining("timed out");
+
+        // Once the abandoned hash has been measured, later requests are refused without queueing
+        long deadline = System.currentTimeMillis() + 10_000;
+        String message = null;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                pool.encode("secret");
+            } catch (PasswordHashingBusyException ex) {
+                message = ex.getMessage();
+                if (message.contains("within the timeout")) {
+                    assertThat(ex.getRetryAfterSeconds()).isEqualTo(1);
+                    break;
+                }
+            }
+            sleep(50);
+        }
+        assertThat(message).contains("within the timeout");
+    }
+
+    @Test
+    void leavesHashParsingOnTheCallingThread() {
+        PasswordHashingPool pool = pool(10, 1, 250);
+
+        assertThat(pool.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(pool.upgradeEncoding(new BCryptPasswordEncoder(10).encode("secret"))).isFalse();
+    }
+
+    private PasswordHashingPool pool(int strength, int threads, long timeout) {
+        ScreenEngineProperties properties = new ScreenEngineProperties();
+        ScreenEngineProperties.PasswordHashing config = properties.getSecurity().getPasswordHashing();
+        config.setStrength(strength);
+        config.setThreads(threads);
+        config.setBulkThreads(threads);
+        config.setTimeout(timeout);
+        PasswordHashingPool pool = new PasswordHashingPool(properties);
+        pools.add(pool);
+        return pool;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.screenengine.security;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for serving cached principals only at the current security version.
+ */
+class PrincipalCacheTest {
+
+    private final VersionTable versions = new VersionTable();
+    private final SecurityVersionRegistry registry = new SecurityVersionRegistry(versions);
+    private final PrincipalCache cache = new PrincipalCache(new ScreenEngineProperties(), registry);
+
+    @Test
+    void servesAPrincipalWhileItsVersionIsCurrent() {
+        UserPrincipal principal = principal("ayse", 0);
+
+        cache.put(principal);
+
+        assertThat(cache.getByUsername("ayse")).isSameAs(principal);
+    }
+
+    @Test
+    void dropsAPrincipalOnceAnotherNodeBumpedTheVersion() {
+        cache.put(principal("ayse", 0));
+
+        // What the registry learns from a bump made on another node
+        versions.next = 1;
+        registry.bump(7L);
+
+        assertThat(cache.getByUsername("ayse")).isNull();
+        cache.put(principal("ayse", 1));
+        assertThat(cache.getByUsername("ayse")).isNotNull();
+    }
+
+    @Test
+    void doesNotCacheAPrincipalReadBeforeTheLatestBump() {
+        versions.next = 2;
+        registry.bump(7L);
+
+        cache.put(principal("ayse", 1));
+
+        assertThat(cache.getByUsername("ayse")).isNull();
+    }
+
+    @Test
+    void missesAfterARename() {
+        cache.put(principal("ayse", 0));
+
+        assertThat(cache.getByUsername("ayse.yilmaz")).isNull();
+        cache.invalidate(7L);
+        assertThat(cache.getByUsername("ayse")).isNull();
+    }
+
+    @Test
+    void cachesNothingWhenDisabled() {
+        ScreenEngineProperties properties = new ScreenEngineProperties();
+        properties.getCache().setEnabled(false);
+        PrincipalCache disabled = new PrincipalCache(properties, registry);
+
+        disabled.put(principal("ayse", 0));
+
+        assertThat(disabled.getByUsername("ayse")).isNull();
+    }
+
+    private static UserPrincipal principal(String username, int securityVersion) {
+        User user = User.builder()
+                .userId(7L)
+                .username(username)
+                .active(1)
+                .locked(0)
+                .passwordExpired(0)
+                .securityVersion(securityVersion)
+                .build();
+        return UserPrincipal.create(user, Set.of());
+    }
+
+    /**
+     * Answers security version bumps with a preset version
+     */
+    private static final class VersionTable extends JdbcTemplate {
+        Integer next;
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            return requiredType.cast(next);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.screenengine.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.screenengine.config.ScreenEngineProperties;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for username-keyed rate limiting of login requests.
+ */
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), new ObjectMapper());
+
+    @Test
+    void limitsLoginsPerUsername() throws Exception {
+        assertThat(login("ayse").status).isEqualTo(200);
+        assertThat(login("AYSE ").status).isEqualTo(200);
+
+        Response limited = login("ayse");
+
+        assertThat(limited.status).isEqualTo(429);
+        assertThat(limited.headers).containsKey("Retry-After");
+        assertThat(login("mehmet").status).isEqualTo(200);
+    }
+
+    @Test
+    void passesTheBodyOnToBlockingReaders() throws Exception {
+        ServletRequest passed = passOn("ayse");
+
+        assertThat(new String(passed.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body("ayse"));
+        assertThat(passed.getReader().readLine()).isEqualTo(body("ayse"));
+    }
+
+    @Test
+    void passesTheBodyOnToNonBlockingReaders() throws Exception {
+        ServletInputStream in = passOn("ayse").getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[16];
+                while (in.isReady() && !in.isFinished()) {
+                    int n = in.read(buffer);
+                    read.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("data", "done");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body("ayse"));
+    }
+
+    private Response login(String username) throws Exception {
+        Response response = new Response();
+        filter.doFilter(request(username), response.proxy(), (request, ignored) -> response.status = 200);
+        return response;
+    }
+
+    private ServletRequest passOn(String username) throws Exception {
+        ServletRequest[] passed = new ServletRequest[1];
+        filter.doFilter(request(username), new Response().proxy(), (request, ignored) -> passed[0] = request);
+        return passed[0];
+    }
+
+    private static HttpServletRequest request(String username) {
+        byte[] content = body(username).getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream in = new ByteArrayInputStream(content);
+        Map<String, Object> attributes = new HashMap<>();
+        return proxy(HttpServletRequest.class, (method, args) -> switch (method) {
+            case "getRequestURI" -> "/api/v1/auth/login";
+            case "getContextPath" -> "";
+            case "getMethod" -> "POST";
+            case "getContentType" -> "application/json";
+            case "getContentLengthLong" -> (long) content.length;
+            case "getRemoteAddr" -> "10.0.0.5";
+            case "getDispatcherType" -> DispatcherType.REQUEST;
+            case "getAttribute" -> attributes.get((String) args[0]);
+            case "setAttribute" -> attributes.put((String) args[0], args[1]);
+            case "removeAttribute" -> attributes.remove((String) args[0]);
+            case "getInputStream" -> new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                }
+            };
+            default -> null;
+        });
+    }
+
+    private static String body(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"secret\"}";
+    }
+
+    private static ScreenEngineProperties properties() {
+        ScreenEngineProperties.RateLimitGroup auth = new ScreenEngineProperties.RateLimitGroup();
+        auth.setName("auth");
+        auth.setPatterns(List.of("/api/v1/auth/**"));
+        auth.setKey(ScreenEngineProperties.RateLimitKey.USERNAME);
+        auth.setCapacity(2);
+        auth.setRefillPerSecond(0.01);
+        auth.setIpCapacity(100);
+        ScreenEngineProperties properties = new ScreenEngineProperties();
+        properties.getRateLimit().getGroups().add(auth);
+        return properties;
+    }
+
+    /**
+     * Status and headers written by the filter
+     */
+    private static final class Response {
+        int status;
+        final Map<String, String> headers = new HashMap<>();
+
+        HttpServletResponse proxy() {
+            return RateLimitFilterTest.proxy(HttpServletResponse.class, (method, args) -> {
+                switch (method) {
+                    case "setStatus" -> status = (Integer) args[0];
+                    case "setHeader" -> headers.put((String) args[0], (String) args[1]);
+                    case "getOutputStream" -> {
+                        return new ServletOutputStream() {
+                            @Override
+                            public void write(int b) {
+                            }
+
+                            @Override
+                            public boolean isReady() {
+                                return true;
+                            }
+
+                            @Override
+                            public void setWriteListener(WriteListener listener) {
+                            }
+                        };
+                    }
+                    default -> {
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = handler.handle(method.getName(), args);
+            if (result == null && method.getReturnType() == boolean.class) {
+                return false;
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.screenengine.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for loading, refreshing and bumping user security versions.
+ */
+class SecurityVersionRegistryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    private final FakeUserTable users = new FakeUserTable();
+    private final SecurityVersionRegistry registry = new SecurityVersionRegistry(users);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsBumpedUsersAndTreatsOthersAsVersionZero() {
+        users.rows.add(new Row(7L, 3, NOON));
+
+        registry.init();
+
+        assertThat(registry.currentVersion(7L)).isEqualTo(3);
+        assertThat(registry.currentVersion(8L)).isZero();
+        assertThat(registry.isCurrent(7L, 3)).isTrue();
+        assertThat(registry.isCurrent(7L, 2)).isFalse();
+        assertThat(registry.isCurrent(8L, 0)).isTrue();
+    }
+
+    @Test
+    void refreshesFromTheLatestUpdateMinusTheOverlap() {
+        users.rows.add(new Row(7L, 1, NOON.minusHours(1)));
+        users.rows.add(new Row(8L, 2, NOON));
+        registry.init();
+
+        users.rows.add(new Row(7L, 4, NOON.plusSeconds(30)));
+        registry.refresh();
+
+        assertThat(users.since).containsExactly(null, NOON.minusSeconds(300));
+        assertThat(registry.currentVersion(7L)).isEqualTo(4);
+
+        registry.refresh();
+
+        assertThat(users.since.get(2)).isEqualTo(NOON.plusSeconds(30).minusSeconds(300));
+    }
+
+    @Test
+    void neverLowersAVersionSeenBefore() {
+        users.rows.add(new Row(7L, 5, NOON));
+        registry.init();
+
+        users.rows.clear();
+        users.rows.add(new Row(7L, 2, NOON.plusSeconds(1)));
+        registry.refresh();
+
+        assertThat(registry.currentVersion(7L)).isEqualTo(5);
+    }
+
+    @Test
+    void keepsKnownVersionsWhenARefreshFails() {
+        users.rows.add(new Row(7L, 3, NOON));
+        registry.init();
+
+        users.failing = true;
+        registry.refresh();
+
+        assertThat(registry.currentVersion(7L)).isEqualTo(3);
+    }
+
+    @Test
+    void bumpMovesUpdatedAtSoOtherNodesSeeIt() {
+        users.bumpTo = 4;
+
+        registry.bump(7L);
+
+        assertThat(users.updates).hasSize(1);
+        assertThat(users.updates.get(0)).contains("security_version = security_version + 1")
+                .contains("updated_at = CURRENT_TIMESTAMP");
+        assertThat(registry.currentVersion(7L)).isEqualTo(4);
+        assertThat(registry.isCurrent(7L, 3)).isFalse();
+    }
+
+    @Test
+    void appliesABumpInsideATransactionOnlyAfterCommit() {
+        users.bumpTo = 2;
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.bump(7L);
+
+        assertThat(registry.currentVersion(7L)).isZero();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(registry.currentVersion(7L)).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresBumpsOfUnknownUsers() {
+        users.bumpTo = null;
+
+        registry.bump(99L);
+
+        assertThat(registry.currentVersion(99L)).isZero();
+    }
+
+    private record Row(long userId, int version, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * t_user rows served to the registry's queries; a since filter is recorded, not applied
+     */
+    private static final class FakeUserTable extends JdbcTemplate {
+        final List<Row> rows = new ArrayList<>();
+        final List<LocalDateTime> since = new ArrayList<>();
+        final List<String> updates = new ArrayList<>();
+        Integer bumpTo;
+        boolean failing;
+
+        @Override
+        public void query(String sql, RowCallbackHandler handler) {
+            since.add(null);
+            serve(handler);
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler handler, Object... args) {
+            since.add((LocalDateTime) args[0]);
+            serve(handler);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            updates.add(sql);
+            return requiredType.cast(bumpTo);
+        }
+
+        private void serve(RowCallbackHandler handler) {
+            if (failing) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            for (Row row : rows) {
+                try {
+                    handler.processRow(resultSet(row));
+                } catch (SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+
+        private static ResultSet resultSet(Row row) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getLong" -> row.userId();
+                        case "getInt" -> row.version();
+                        case "getObject" -> row.updatedAt();
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.screenengine.security;
+
+import com.screenengine.model.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the permission bitsets shared through cached principals and tokens.
+ */
+class UserPrincipalTest {
+
+    private static final int USER_READ = 3;
+    private static final int USER_DELETE = 70;
+
+    @Test
+    void checksPermissionsAcrossWords() {
+        UserPrincipal principal = principal().withPermissionBits(bits(USER_READ, USER_DELETE));
+
+        assertThat(principal.hasPermission(USER_READ)).isTrue();
+        assertThat(principal.hasPermission(USER_DELETE)).isTrue();
+        assertThat(principal.hasPermission(4)).isFalse();
+        assertThat(principal.hasPermission(200)).isFalse();
+        assertThat(principal.hasPermission(-1)).isFalse();
+        assertThat(principal().hasPermission(USER_READ)).isFalse();
+    }
+
+    @Test
+    void copiesTheBitsetItIsGiven() {
+        long[] bits = bits(USER_READ);
+        UserPrincipal principal = principal().withPermissionBits(bits);
+
+        bits[0] = -1L;
+
+        assertThat(principal.hasPermission(4)).isFalse();
+    }
+
+    @Test
+    void handsOutCopiesOfItsBitset() {
+        UserPrincipal principal = principal().withPermissionBits(bits(USER_READ));
+
+        principal.getPermissionBits()[0] = -1L;
+
+        assertThat(principal.hasPermission(4)).isFalse();
+        assertThat(principal.getPermissionBits()).containsExactly(1L << USER_READ, 0L);
+    }
+
+    @Test
+    void handsOutCopiesOfATokensBitset() {
+        VerifiedToken token = VerifiedToken.from(claims(Map.of(
+                JwtTokenProvider.CLAIM_USER_ID, 7L,
+                JwtTokenProvider.CLAIM_ROLES, List.of("ROLE_USER"),
+                JwtTokenProvider.CLAIM_ENABLED, true,
+                JwtTokenProvider.CLAIM_SECURITY_VERSION, 2,
+                JwtTokenProvider.CLAIM_PERMISSIONS, JwtTokenProvider.encodePermissionBits(bits(USER_READ)))));
+
+        token.getPermissionBits()[0] = -1L;
+        UserPrincipal principal = UserPrincipal.create(token);
+
+        assertThat(principal.hasPermission(USER_READ)).isTrue();
+        assertThat(principal.hasPermission(4)).isFalse();
+        assertThat(principal.getSecurityVersion()).isEqualTo(2);
+    }
+
+    private static UserPrincipal principal() {
+        return UserPrincipal.create(User.builder().userId(7L).username("ayse").active(1).build(), Set.of());
+    }
+
+    /**
+     * Parsed claims of a token for "ayse"
+     */
+    static Claims claims(Map<String, Object> values) {
+        return (Claims) Proxy.newProxyInstance(Claims.class.getClassLoader(), new Class<?>[]{Claims.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getSubject" -> "ayse";
+                    case "get" -> ((Class<?>) args[1]).cast(values.get((String) args[0]));
+                    default -> null;
+                });
+    }
+
+    static long[] bits(int... permissionIds) {
+        long[] bits = new long[2];
+        for (int id : permissionIds) {
+            bits[id >>> 6] |= 1L << id;
+        }
+        return bits;
+    }
+}
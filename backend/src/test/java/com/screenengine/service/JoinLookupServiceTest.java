@@ -0,0 +1,156 @@
+package com.screenengine.service;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.model.ColumnType;
+import com.screenengine.model.ScreenColumn;
+import com.screenengine.sql.LookupQuery;
+import com.screenengine.sql.ParameterVector;
+import com.screenengine.sql.ScreenQueryCompiler;
+import com.screenengine.sql.SqlCondition;
+import com.screenengine.sql.SystemParameter;
+import com.screenengine.sql.dialect.SqlGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for compiling and batching JOIN column lookups.
+ */
+class JoinLookupServiceTest {
+
+    private static final ScreenColumn DEPO = ScreenColumn.builder()
+            .kolonAd("Depo")
+            .dbKolon("depo_kod")
+            .tipi(ColumnType.JOIN)
+            .joinTablo("t_depo")
+            .joinTabloDbKod("depo_kod")
+            .joinTabloDbAd("depo_ad")
+            .ozellikKolon2("fabrika_kod = :FABRIKA")
+            .joinCondition(SqlCondition.parse("fabrika_kod = :FABRIKA"))
+            .build();
+
+    private static final ParameterVector PARAMETERS = ParameterVector.defaults(new ScreenEngineProperties.Parameters())
+            .forUser(205L, "ayse");
+
+    @Test
+    void compilesLookupsWithTheJoinCondition() {
+        LookupQuery padded = compiler("ORACLE").compileLookup(DEPO, 4);
+        LookupQuery array = compiler("POSTGRESQL").compileLookup(DEPO, 0);
+
+        assertThat(padded.sql()).isEqualTo(
+                "SELECT depo_kod, depo_ad FROM t_depo WHERE depo_kod IN (?, ?, ?, ?) AND (fabrika_kod = ?)");
+        assertThat(padded.codePlaceholders()).isEqualTo(4);
+        assertThat(padded.parameters()).containsExactly(SystemParameter.FACTORY);
+        assertThat(array.sql()).isEqualTo("SELECT depo_kod, depo_ad FROM t_depo WHERE depo_kod = ANY(?) AND (fabrika_kod = ?)");
+        assertThat(array.isArrayBound()).isTrue();
+    }
+
+    @Test
+    void looksUpDistinctCodesOncePerBatchAndPadsWithTheLastCode() {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate(Map.of("1", "Ana Depo", "2", "Yan Depo"));
+        JoinLookupService service = new JoinLookupService(compiler("ORACLE"), jdbc, properties("ORACLE"));
+
+        Map<String, String> names = service.resolve(DEPO, List.of(1L, 2L, 1L, 3L), PARAMETERS);
+
+        assertThat(names).containsEntry("1", "Ana Depo").containsEntry("2", "Yan Depo").doesNotContainKey("3");
+        assertThat(jdbc.statements).hasSize(1);
+        assertThat(jdbc.statements.get(0)).endsWith("IN (?, ?, ?, ?) AND (fabrika_kod = ?)");
+        assertThat(jdbc.bound.get(0)).containsExactly(1L, 2L, 3L, 3L, 205L);
+    }
+
+    @Test
+    void servesKnownAndUnknownCodesFromTheCache() {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate(Map.of("1", "Ana Depo"));
+        JoinLookupService service = new JoinLookupService(compiler("ORACLE"), jdbc, properties("ORACLE"));
+
+        service.resolve(DEPO, List.of(1L, 9L), PARAMETERS);
+        Map<String, String> again = service.resolve(DEPO, List.of(9L, 1L), PARAMETERS);
+
+        assertThat(again).containsEntry("1", "Ana Depo").doesNotContainKey("9");
+        assertThat(jdbc.statements).hasSize(1);
+    }
+
+    @Test
+    void keepsNamesOfDifferentFactoriesApart() {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate(Map.of("1", "Ana Depo"));
+        JoinLookupService service = new JoinLookupService(compiler("ORACLE"), jdbc, properties("ORACLE"));
+
+        service.resolve(DEPO, List.of(1L), PARAMETERS);
+        service.resolve(DEPO, List.of(1L), PARAMETERS.forUser(301L, "ayse"));
+
+        assertThat(jdbc.statements).hasSize(2);
+        assertThat(jdbc.bound.get(1)).containsExactly(1L, 301L);
+    }
+
+    private static ScreenEngineProperties properties(String dialect) {
+        ScreenEngineProperties properties = new ScreenEngineProperties();
+        properties.getSql().setDialect(dialect);
+        properties.getSql().setEnableDebugQuery(false);
+        return properties;
+    }
+
+    private static ScreenQueryCompiler compiler(String dialect) {
+        return new ScreenQueryCompiler(properties(dialect), new StaticListableBeanFactory().getBeanProvider(SqlGenerator.class));
+    }
+
+    /**
+     * Records statements and bound values, answering with the names of the bound codes
+     */
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+        final List<String> statements = new ArrayList<>();
+        final List<List<Object>> bound = new ArrayList<>();
+        private final Map<String, String> dimension;
+
+        RecordingJdbcTemplate(Map<String, String> dimension) {
+            this.dimension = dimension;
+        }
+
+        @Override
+        public void query(String sql, PreparedStatementSetter pss, RowCallbackHandler rch) {
+            statements.add(sql);
+            Map<Integer, Object> values = new HashMap<>();
+            PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("setObject")) {
+                            values.put((Integer) args[0], args[1]);
+                        }
+                        return null;
+                    });
+            try {
+                pss.setValues(ps);
+                List<Object> row = new ArrayList<>();
+                for (int i = 1; i <= values.size(); i++) {
+                    row.add(values.get(i));
+                }
+                bound.add(row);
+                for (Object code : row.stream().distinct().toList()) {
+                    String name = dimension.get(String.valueOf(code));
+                    if (name != null) {
+                        rch.processRow(row(String.valueOf(code), name));
+                    }
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        private static ResultSet row(String code, String name) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> (Integer) args[0] == 1 ? code : name);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.screenengine.service;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.security.InvalidRefreshTokenException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for refresh token rotation, reuse detection and purging.
+ */
+class RefreshTokenServiceTest {
+
+    private final TokenTable table = new TokenTable();
+    private final ScreenEngineProperties properties = new ScreenEngineProperties();
+    private final RefreshTokenService service = new RefreshTokenService(table, properties);
+
+    @Test
+    void storesOnlyTheDigestOfATokenInANewFamily() {
+        String first = service.issue(7L);
+        String second = service.issue(7L);
+
+        assertThat(table.rows).hasSize(2);
+        assertThat(table.rows.get(0).token).isNotEqualTo(first);
+        assertThat(table.rows.get(0).token.length()).isEqualTo(64);
+        assertThat(table.rows.get(0).familyId).isNotEqualTo(table.rows.get(1).familyId);
+        assertThat(first).isNotEqualTo(second);
+        assertThat(table.rows.get(0).expiresAt.isAfter(LocalDateTime.now())).isTrue();
+    }
+
+    @Test
+    void rotatesIntoANewTokenOfTheSameFamily() {
+        String issued = service.issue(7L);
+
+        RefreshTokenService.IssuedToken rotated = service.rotate(issued);
+
+        assertThat(rotated.userId()).isEqualTo(7L);
+        assertThat(rotated.token()).isNotEqualTo(issued);
+        Row old = table.rows.get(0);
+        Row current = table.rows.get(1);
+        assertThat(old.revoked).isTrue();
+        assertThat(old.rotatedAt).isNotNull();
+        assertThat(current.revoked).isFalse();
+        assertThat(current.familyId).isEqualTo(old.familyId);
+        assertThat(service.rotate(rotated.token()).userId()).isEqualTo(7L);
+    }
+
+    @Test
+    void revokesTheWholeFamilyWhenARotatedTokenComesBack() {
+        String stolen = service.issue(7L);
+        String current = service.rotate(stolen).token();
+        String other = service.issue(7L);
+
+        assertThatThrownBy(() -> service.rotate(stolen))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("revoked");
+
+        assertThatThrownBy(() -> service.rotate(current))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("revoked");
+        assertThat(service.rotate(other).userId()).isEqualTo(7L);
+    }
+
+    @Test
+    void revokesTheFamilyOnLogout() {
+        String issued = service.issue(7L);
+        String current = service.rotate(issued).token();
+
+        service.revoke(current);
+
+        for (Row row : table.rows) {
+            assertThat(row.revoked).isTrue();
+        }
+        assertThatThrownBy(() -> service.rotate(current))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("revoked");
+        service.revoke("unknown");
+    }
+
+    @Test
+    void refusesUnknownAndExpiredTokens() {
+        String issued = service.issue(7L);
+        table.rows.get(0).expiresAt = LocalDateTime.now().minusSeconds(1);
+
+        assertThatThrownBy(() -> service.rotate("unknown"))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("Unknown");
+        assertThatThrownBy(() -> service.rotate(issued))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    void purgesExpiredTokensInBatches() {
+        properties.getSecurity().getRefreshToken().setPurgeBatchSize(2);
+        for (int i = 0; i < 7; i++) {
+            service.issue(7L);
+        }
+        for (int i = 0; i < 5; i++) {
+            table.rows.get(i).expiresAt = LocalDateTime.now().minusMinutes(i + 1);
+        }
+
+        service.purgeExpired();
+
+        assertThat(table.deletes).containsExactly(2, 2, 1);
+        assertThat(table.rows).hasSize(2);
+    }
+
+    private static final class Row {
+        final long tokenId;
+        final long userId;
+        final String token;
+        final UUID familyId;
+        LocalDateTime expiresAt;
+        boolean revoked;
+        LocalDateTime rotatedAt;
+
+        Row(long tokenId, long userId, String token, UUID familyId, LocalDateTime expiresAt) {
+            this.tokenId = tokenId;
+            this.userId = userId;
+            this.token = token;
+            this.familyId = familyId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * t_refresh_token in memory, answering the statements the service issues
+     */
+    private static final class TokenTable extends JdbcTemplate {
+        final List<Row> rows = new ArrayList<>();
+        final List<Integer> deletes = new ArrayList<>();
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.startsWith("INSERT")) {
+                rows.add(new Row(rows.size() + 1L, (Long) args[0], (String) args[1], (UUID) args[2], (LocalDateTime) args[3]));
+                return 1;
+            }
+            if (sql.startsWith("DELETE")) {
+                LocalDateTime now = (LocalDateTime) args[0];
+                List<Row> expired = rows.stream().filter(row -> row.expiresAt.isBefore(now))
+                        .sorted((a, b) -> a.expiresAt.compareTo(b.expiresAt))
+                        .limit((Integer) args[1]).toList();
+                rows.removeAll(expired);
+                deletes.add(expired.size());
+                return expired.size();
+            }
+            if (sql.contains("rotated_at = ?")) {
+                Row row = rows.stream().filter(r -> r.tokenId == (Long) args[1]).findFirst().orElseThrow();
+                row.revoked = true;
+                row.rotatedAt = (LocalDateTime) args[0];
+                return 1;
+            }
+            UUID familyId = sql.contains("SELECT family_id")
+                    ? rows.stream().filter(r -> r.token.equals(args[0])).map(r -> r.familyId).findFirst().orElse(null)
+                    : (UUID) args[0];
+            int revoked = 0;
+            for (Row row : rows) {
+                if (row.familyId.equals(familyId) && !row.revoked) {
+                    row.revoked = true;
+                    revoked++;
+                }
+            }
+            return revoked;
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            List<T> result = new ArrayList<>();
+            for (Row row : rows) {
+                if (row.token.equals(args[0])) {
+                    try {
+                        result.add(rowMapper.mapRow(resultSet(row), 0));
+                    } catch (SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static ResultSet resultSet(Row row) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> switch (method.getName() + ":" + args[0]) {
+                        case "getLong:token_id" -> row.tokenId;
+                        case "getLong:user_id" -> row.userId;
+                        case "getObject:family_id" -> row.familyId;
+                        case "getObject:expires_at" -> row.expiresAt;
+                        case "getObject:rotated_at" -> row.rotatedAt;
+                        case "getInt:revoked" -> row.revoked ? 1 : 0;
+                        default -> throw new UnsupportedOperationException(method.getName() + " " + args[0]);
+                    });
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.screenengine.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the CSV field encoding of {@link UserExportService}.
+ */
+class UserExportServiceTest {
+
+    @Test
+    void writesPlainValuesUnquoted() throws IOException {
+        assertThat(csv("ahmet.yilmaz")).isEqualTo("ahmet.yilmaz");
+        assertThat(csv("")).isEqualTo("");
+        assertThat(csv(null)).isEqualTo("");
+    }
+
+    @Test
+    void quotesDelimitersQuotesAndLineBreaks() throws IOException {
+        assertThat(csv("Yilmaz, Ahmet")).isEqualTo("\"Yilmaz, Ahmet\"");
+        assertThat(csv("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(csv("a\nb")).isEqualTo("\"a\nb\"");
+    }
+
+    @Test
+    void neutralizesFormulaTriggers() throws IOException {
+        assertThat(csv("=HYPERLINK(\"http://x\")")).isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\"");
+        assertThat(csv("+1")).isEqualTo("\"'+1\"");
+        assertThat(csv("-2+3")).isEqualTo("\"'-2+3\"");
+        assertThat(csv("@SUM(A1)")).isEqualTo("\"'@SUM(A1)\"");
+        assertThat(csv("\tcmd")).isEqualTo("\"'\tcmd\"");
+        assertThat(csv("\rcmd")).isEqualTo("\"'\rcmd\"");
+    }
+
+    @Test
+    void leavesTriggerCharactersInsideValuesAlone() throws IOException {
+        assertThat(csv("a=b")).isEqualTo("a=b");
+        assertThat(csv("user@example.com")).isEqualTo("user@example.com");
+    }
+
+    private static String csv(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        UserExportService.writeCsvValue(writer, value);
+        return writer.toString();
+    }
+}
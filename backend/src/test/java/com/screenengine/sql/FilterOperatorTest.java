@@ -0,0 +1,39 @@
+package com.screenengine.sql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for parsing query panel operators.
+ */
+class FilterOperatorTest {
+
+    private final Locale defaultLocale = Locale.getDefault();
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void parsesStoredSymbols() {
+        assertThat(FilterOperator.of(null)).isEqualTo(FilterOperator.EQ);
+        assertThat(FilterOperator.of(" >= ")).isEqualTo(FilterOperator.GE);
+        assertThat(FilterOperator.of("!=")).isEqualTo(FilterOperator.NE);
+        assertThat(FilterOperator.of("LIKE")).isEqualTo(FilterOperator.LIKE);
+        assertThatThrownBy(() -> FilterOperator.of("BETWEEN")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsesLowerCaseKeywordsUnderATurkishDefaultLocale() {
+        Locale.setDefault(new Locale("tr", "TR"));
+
+        assertThat(FilterOperator.of("like")).isEqualTo(FilterOperator.LIKE);
+        assertThat(FilterOperator.of("in")).isEqualTo(FilterOperator.IN);
+    }
+}
@@ -0,0 +1,121 @@
+package com.screenengine.sql;
+
+import com.screenengine.model.ColumnType;
+import com.screenengine.model.ScreenColumn;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for encoding and decoding keyset cursors.
+ */
+class KeysetCursorTest {
+
+    private static final List<SortKey> KEYS = List.of(
+            key("ad", ColumnType.STR),
+            key("tutar", ColumnType.NUMBER),
+            key("tarih", ColumnType.DATE),
+            key("id", ColumnType.PK));
+
+    @Test
+    void decodesValuesToTheTypesTheyWereReadAs() {
+        Object[] values = {"Vida, M8", new BigDecimal("1E+3"), LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000), 42L};
+
+        Object[] decoded = KeysetCursor.decode("ad,tutar,tarih,id", KeysetCursor.encode("ad,tutar,tarih,id", values), KEYS);
+
+        assertThat(decoded).containsExactly("Vida, M8", new BigDecimal("1000"), values[2], 42L);
+    }
+
+    @Test
+    void keepsDatesAndOffsetTimestamps() {
+        List<SortKey> keys = List.of(key("gun", ColumnType.DATE), key("an", ColumnType.DATE));
+        OffsetDateTime instant = OffsetDateTime.of(2024, 3, 1, 10, 15, 30, 0, ZoneOffset.ofHours(3));
+        Object[] values = {LocalDate.of(2024, 3, 1), instant};
+
+        Object[] decoded = KeysetCursor.decode("gun,an", KeysetCursor.encode("gun,an", values), keys);
+
+        assertThat(decoded).containsExactly(LocalDate.of(2024, 3, 1), instant);
+    }
+
+    @Test
+    void keepsEmptyStringsApartFromNull() {
+        List<SortKey> keys = List.of(key("ad", ColumnType.STR));
+
+        assertThat(KeysetCursor.decode("ad", KeysetCursor.encode("ad", new Object[]{""}), keys)).containsExactly("");
+        assertThat(KeysetCursor.decode("ad", KeysetCursor.encode("ad", new Object[]{"n"}), keys)).containsExactly("n");
+    }
+
+    @Test
+    void refusesToContinueAfterNullKeys() {
+        String cursor = KeysetCursor.encode("ad,tutar,tarih,id", new Object[]{"a", null, null, 1L});
+
+        assertThatThrownBy(() -> KeysetCursor.decode("ad,tutar,tarih,id", cursor, KEYS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tutar");
+    }
+
+    @Test
+    void refusesCursorsOfAnotherSortOrTamperedOnes() {
+        String cursor = KeysetCursor.encode("ad,tutar,tarih,id", new Object[]{"a", BigDecimal.ONE, LocalDate.of(2024, 1, 1), 1L});
+
+        assertThatThrownBy(() -> KeysetCursor.decode("-ad,tutar,tarih,id", cursor, KEYS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not match");
+        assertThatThrownBy(() -> KeysetCursor.decode("ad,tutar,tarih,id", "%%%", KEYS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        String wrongType = KeysetCursor.encode("ad,tutar,tarih,id", new Object[]{"a", "x", LocalDate.of(2024, 1, 1), 1L});
+        assertThatThrownBy(() -> KeysetCursor.decode("ad,tutar,tarih,id", wrongType, KEYS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsKeysWithTypedGetters() throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 10, 15, 30));
+        ResultSet rs = resultSet(new Object[]{timestamp, Date.valueOf(LocalDate.of(2024, 3, 1)), null, 7L});
+
+        assertThat(QueryTemplate.readValue(rs, 1, key("an", ColumnType.DATE).column()))
+                .isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 15, 30));
+        assertThat(QueryTemplate.readValue(rs, 2, key("gun", ColumnType.DATE).column())).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(QueryTemplate.readValue(rs, 3, key("tutar", ColumnType.LONG).column())).isNull();
+        assertThat(QueryTemplate.readValue(rs, 4, key("id", ColumnType.PK).column())).isEqualTo(7L);
+    }
+
+    private static SortKey key(String name, ColumnType type) {
+        return new SortKey(ScreenColumn.builder().kolonAd(name).dbKolon(name).tipi(type).zorunlu(true).build(), false);
+    }
+
+    /**
+     * Single-row result set over the given values, answering the getters readValue uses
+     */
+    private static ResultSet resultSet(Object[] row) {
+        int[] last = {0};
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return row[last[0] - 1] == null;
+                    }
+                    last[0] = (Integer) args[0];
+                    Object value = row[last[0] - 1];
+                    return switch (method.getName()) {
+                        case "getLong" -> value != null ? ((Number) value).longValue() : 0L;
+                        case "getInt" -> value != null ? ((Number) value).intValue() : 0;
+                        case "getString" -> value != null ? value.toString() : null;
+                        default -> value;
+                    };
+                });
+    }
+}
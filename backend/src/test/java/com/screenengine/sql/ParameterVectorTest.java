@@ -0,0 +1,68 @@
+package com.screenengine.sql;
+
+import com.screenengine.config.ScreenEngineProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for per-user system parameter vectors.
+ */
+class ParameterVectorTest {
+
+    private final ParameterVector defaults = ParameterVector.defaults(new ScreenEngineProperties.Parameters());
+
+    @Test
+    void readsTheConfiguredDefaults() {
+        assertThat(defaults.get(SystemParameter.FACTORY)).isEqualTo(101L);
+        assertThat(defaults.get(SystemParameter.USER)).isEqualTo("ADMIN");
+        assertThat(defaults.get(SystemParameter.ACCOUNTING_PERIOD_ID)).isEqualTo(202401L);
+        assertThat(defaults.get(SystemParameter.ORG_CODE)).isEqualTo("DEFAULT");
+    }
+
+    @Test
+    void replacesFactoryAndUserOfTheAuthenticatedUser() {
+        ParameterVector user = defaults.forUser(205L, "ayse");
+
+        assertThat(user.get(SystemParameter.FACTORY)).isEqualTo(205L);
+        assertThat(user.get(SystemParameter.USER)).isEqualTo("ayse");
+        assertThat(user.get(SystemParameter.DEPARTMENT_NO)).isEqualTo(10L);
+        assertThat(defaults.get(SystemParameter.FACTORY)).isEqualTo(101L);
+    }
+
+    @Test
+    void returnsTheDefaultsWhenNothingDiffers() {
+        assertThat(defaults.forUser(101L, "ADMIN")).isSameAs(defaults);
+        assertThat(defaults.forUser(null, null)).isSameAs(defaults);
+    }
+
+    @Test
+    void keepsTheDefaultForMissingValues() {
+        ParameterVector user = defaults.forUser(null, "ayse");
+
+        assertThat(user.get(SystemParameter.FACTORY)).isEqualTo(101L);
+        assertThat(user.get(SystemParameter.USER)).isEqualTo("ayse");
+    }
+
+    @Test
+    void comparesByValue() {
+        assertThat(defaults.forUser(205L, "ayse")).isEqualTo(defaults.forUser(205L, "ayse"));
+        assertThat(defaults.forUser(205L, "ayse").hashCode()).isEqualTo(defaults.forUser(205L, "ayse").hashCode());
+        assertThat(defaults.forUser(205L, "ayse")).isNotEqualTo(defaults.forUser(206L, "ayse"));
+    }
+
+    @Test
+    void resolvesParameterNamesUnderATurkishDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertThat(SystemParameter.of("kisiid")).isEqualTo(SystemParameter.PERSON_ID);
+            assertThat(SystemParameter.of("birimNo")).isEqualTo(SystemParameter.DEPARTMENT_NO);
+            assertThat(SystemParameter.of("fabrika")).isEqualTo(SystemParameter.FACTORY);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
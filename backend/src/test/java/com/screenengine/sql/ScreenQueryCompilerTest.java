@@ -0,0 +1,272 @@
+package com.screenengine.sql;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.model.ColumnType;
+import com.screenengine.model.ScreenColumn;
+import com.screenengine.model.ScreenDefinition;
+import com.screenengine.model.ScreenTable;
+import com.screenengine.sql.dialect.SqlDialect;
+import com.screenengine.sql.dialect.SqlGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for filter shapes, IN list sizing and the golden SQL of the query compiler.
+ */
+class ScreenQueryCompilerTest {
+
+    private static final ScreenTable TABLE = ScreenTable.builder()
+            .tabloId(1L)
+            .tabloAd("Stok")
+            .dbTablo("t_stok")
+            .tabloIdKolon("stok_id")
+            .columns(List.of(
+                    column("stok_id", ColumnType.PK, 0, null),
+                    column("stok_ad", ColumnType.STR, 1, "LIKE"),
+                    column("depo_kod", ColumnType.LONG, 2, "IN"),
+                    column("miktar", ColumnType.NUMBER, 0, null),
+                    column("durum", ColumnType.COMBO, 1, "=")))
+            .build();
+
+    @Test
+    void shapesRecordWhichPanelFiltersAreSet() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.POSTGRESQL);
+
+        FilterShape shape = compiler.shapeOf(TABLE, Map.of("stok_ad", "VIDA%", "miktar", "5", "durum", " "));
+
+        assertThat(shape.size()).isEqualTo(3);
+        assertThat(shape).hasToString("[1, 0, 0]");
+    }
+
+    @Test
+    void requestsWithTheSameFiltersSetShareAShape() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.ORACLE);
+
+        FilterShape first = compiler.shapeOf(TABLE, Map.of("depo_kod", "1,2,3", "durum", "A"));
+        FilterShape second = compiler.shapeOf(TABLE, Map.of("depo_kod", "7,8,9,10", "durum", "P"));
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first.hashCode()).isEqualTo(second.hashCode());
+        assertThat(first).hasToString("[0, 4, 1]");
+        assertThat(compiler.shapeOf(TABLE, Map.of("depo_kod", "1,2,3,4,5"))).isNotEqualTo(first);
+    }
+
+    @Test
+    void padsInListsToPowersOfTwoWithoutArrayBinding() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.ORACLE);
+
+        assertThat(compiler.inListSize(1)).isEqualTo(1);
+        assertThat(compiler.inListSize(2)).isEqualTo(2);
+        assertThat(compiler.inListSize(3)).isEqualTo(4);
+        assertThat(compiler.inListSize(4)).isEqualTo(4);
+        assertThat(compiler.inListSize(5)).isEqualTo(8);
+        assertThat(compiler.inListSize(600)).isEqualTo(1000);
+        assertThat(compiler.inListSize(1000)).isEqualTo(1000);
+    }
+
+    @Test
+    void bindsInListsAsOneArrayOnPostgresql() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.POSTGRESQL);
+
+        assertThat(compiler.inListSize(7)).isZero();
+        assertThat(compiler.shapeOf(TABLE, Map.of("depo_kod", "1,2,3"))).hasToString("[0, 1, 0]");
+    }
+
+    @Test
+    void refusesOversizedInLists() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.MYSQL);
+        String values = String.join(",", Collections.nCopies(1001, "1"));
+
+        assertThatThrownBy(() -> compiler.shapeOf(TABLE, Map.of("depo_kod", values)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Too many values");
+    }
+
+    @Test
+    void continuesPagesAfterTheCursorWithATotalOrder() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.POSTGRESQL);
+
+        QueryTemplate template = compiler.compile(SCREEN, TABLE, Map.of(),
+                compiler.parseSort(TABLE, "-durum,stok_ad"), true, true);
+
+        assertThat(template.getSql()).isEqualTo("SELECT stok_id, stok_ad, depo_kod, miktar, durum FROM t_stok"
+                + " WHERE durum < ? OR (durum = ? AND (stok_ad > ? OR (stok_ad = ? AND (stok_id > ?))))"
+                + " ORDER BY durum DESC, stok_ad, stok_id LIMIT ?");
+        assertThat(template.getSortSignature()).isEqualTo("-durum,stok_ad,stok_id");
+        assertThat(template.getSortKeyIndexes()).containsExactly(5, 2, 1);
+        assertThat(kinds(template)).containsExactly("CURSOR0", "CURSOR0", "CURSOR1", "CURSOR1", "CURSOR2", "LIMIT0");
+    }
+
+    @Test
+    void comparesRowValuesWhenAllKeysAscend() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.POSTGRESQL);
+
+        QueryTemplate first = compiler.compile(SCREEN, TABLE, Map.of(), compiler.parseSort(TABLE, "stok_ad"), true, false);
+        QueryTemplate next = compiler.compile(SCREEN, TABLE, Map.of(), compiler.parseSort(TABLE, "stok_ad"), true, true);
+
+        assertThat(first.getSql()).isEqualTo("SELECT stok_id, stok_ad, depo_kod, miktar, durum FROM t_stok"
+                + " ORDER BY stok_ad, stok_id LIMIT ?");
+        assertThat(next.getSql()).isEqualTo("SELECT stok_id, stok_ad, depo_kod, miktar, durum FROM t_stok"
+                + " WHERE (stok_ad, stok_id) > (?, ?) ORDER BY stok_ad, stok_id LIMIT ?");
+        assertThat(kinds(next)).containsExactly("CURSOR0", "CURSOR1", "LIMIT0");
+    }
+
+    @Test
+    void refusesOptionalColumnsAsPageSortKeys() {
+        ScreenColumn optional = ScreenColumn.builder().kolonAd("aciklama").dbKolon("aciklama").tipi(ColumnType.STR).build();
+        ScreenTable table = ScreenTable.builder().tabloId(2L).tabloAd("Stok").dbTablo("t_stok").tabloIdKolon("stok_id")
+                .columns(List.of(column("stok_id", ColumnType.PK, 0, null), optional)).build();
+        ScreenQueryCompiler compiler = compiler(SqlDialect.POSTGRESQL);
+
+        assertThatThrownBy(() -> compiler.compile(SCREEN, table, Map.of(), compiler.parseSort(table, "aciklama"), true, true))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("optional");
+    }
+
+    @Test
+    void joinsWhereKosulAndFiltersAsParenthesizedConditions() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.ORACLE);
+
+        QueryTemplate template = compiler.compile(FACTORY_SCREEN, FACTORY_TABLE,
+                Map.of("stok_ad", "VIDA%", "depo_kod", "10,20,30", "durum", "A"));
+
+        assertThat(template.getSql()).isEqualTo("SELECT stok_id, stok_ad, depo_kod, durum FROM t_stok"
+                + " WHERE (fabrika_kod = ? AND aktif = 1) AND (stok_ad LIKE ? AND depo_kod IN (?, ?, ?, ?) OR durum = ?) ORDER BY stok_id");
+        assertThat(kinds(template)).containsExactly(
+                "PARAMETER0", "FILTER0", "FILTER0", "FILTER1", "FILTER2", "FILTER3", "FILTER0");
+        assertThat(template.getBinds().get(0).parameter()).isEqualTo(SystemParameter.FACTORY);
+    }
+
+    @Test
+    void keepsWhereKosulAloneWithoutFilters() {
+        QueryTemplate template = compiler(SqlDialect.MYSQL).compile(FACTORY_SCREEN, FACTORY_TABLE, Map.of());
+
+        assertThat(template.getSql()).isEqualTo("SELECT stok_id, stok_ad, depo_kod, durum FROM t_stok"
+                + " WHERE fabrika_kod = ? AND aktif = 1 ORDER BY stok_id");
+        assertThat(kinds(template)).containsExactly("PARAMETER0");
+    }
+
+    @Test
+    void sharesOnePaddedInListTemplateAcrossListSizes() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.SQLSERVER);
+
+        QueryTemplate five = compiler.compile(SCREEN, TABLE, Map.of("depo_kod", "1,2,3,4,5"));
+        QueryTemplate seven = compiler.compile(SCREEN, TABLE, Map.of("depo_kod", "1,2,3,4,5,6,7"));
+
+        assertThat(five.getSql()).isEqualTo("SELECT stok_id, stok_ad, depo_kod, miktar, durum FROM t_stok"
+                + " WHERE depo_kod IN (?, ?, ?, ?, ?, ?, ?, ?) ORDER BY stok_id");
+        assertThat(kinds(five)).containsExactly(
+                "FILTER0", "FILTER1", "FILTER2", "FILTER3", "FILTER4", "FILTER5", "FILTER6", "FILTER7");
+        assertThat(seven).isSameAs(five);
+    }
+
+    @Test
+    void bindsInListFiltersAsOneArrayOnPostgresql() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.POSTGRESQL);
+
+        QueryTemplate template = compiler.compile(FACTORY_SCREEN, FACTORY_TABLE,
+                Map.of("stok_ad", "VIDA%", "depo_kod", "10,20,30", "durum", "A"));
+
+        assertThat(template.getSql()).isEqualTo("SELECT stok_id, stok_ad, depo_kod, durum FROM t_stok"
+                + " WHERE (fabrika_kod = ? AND aktif = 1) AND (stok_ad LIKE ? AND depo_kod = ANY(?) OR durum = ?) ORDER BY stok_id");
+        assertThat(kinds(template)).containsExactly("PARAMETER0", "FILTER0", "FILTER_ARRAY0", "FILTER0");
+        assertThat(compiler.compile(FACTORY_SCREEN, FACTORY_TABLE,
+                Map.of("stok_ad", "CIVATA%", "depo_kod", "1", "durum", "P"))).isSameAs(template);
+    }
+
+    @Test
+    void limitsKeysetPagesInEachDialect() {
+        Map<String, String> filters = Map.of("depo_kod", "10,20");
+        String select = "SELECT stok_id, stok_ad, depo_kod, durum FROM t_stok";
+        String nested = " AND (stok_ad > ? OR (stok_ad = ? AND (stok_id > ?))) ORDER BY stok_ad, stok_id";
+
+        assertThat(page(SqlDialect.ORACLE, filters)).isEqualTo(select
+                + " WHERE (fabrika_kod = ? AND aktif = 1) AND (depo_kod IN (?, ?))" + nested + " FETCH FIRST ? ROWS ONLY");
+        assertThat(page(SqlDialect.SQLSERVER, filters)).isEqualTo(select
+                + " WHERE (fabrika_kod = ? AND aktif = 1) AND (depo_kod IN (?, ?))" + nested
+                + " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY");
+        assertThat(page(SqlDialect.MYSQL, filters)).isEqualTo(select
+                + " WHERE (fabrika_kod = ? AND aktif = 1) AND (depo_kod IN (?, ?))" + nested + " LIMIT ?");
+        assertThat(page(SqlDialect.POSTGRESQL, filters)).isEqualTo(select
+                + " WHERE (fabrika_kod = ? AND aktif = 1) AND (depo_kod = ANY(?))"
+                + " AND ((stok_ad, stok_id) > (?, ?)) ORDER BY stok_ad, stok_id LIMIT ?");
+    }
+
+    @Test
+    void bindsKeysetPagesInTextOrder() {
+        ScreenQueryCompiler compiler = compiler(SqlDialect.ORACLE);
+
+        QueryTemplate template = compiler.compile(FACTORY_SCREEN, FACTORY_TABLE, Map.of("durum", "A"),
+                compiler.parseSort(FACTORY_TABLE, "stok_ad"), true, true);
+
+        assertThat(kinds(template)).containsExactly(
+                "PARAMETER0", "FILTER0", "CURSOR0", "CURSOR0", "CURSOR1", "LIMIT0");
+        assertThat(template.getSortKeyIndexes()).containsExactly(2, 1);
+    }
+
+    private static String page(SqlDialect dialect, Map<String, String> filters) {
+        ScreenQueryCompiler compiler = compiler(dialect);
+        return compiler.compile(FACTORY_SCREEN, FACTORY_TABLE, filters,
+                compiler.parseSort(FACTORY_TABLE, "stok_ad"), true, true).getSql();
+    }
+
+    private static final ScreenTable FACTORY_TABLE = ScreenTable.builder()
+            .tabloId(3L)
+            .tabloAd("Fabrika Stok")
+            .dbTablo("t_stok")
+            .tabloIdKolon("stok_id")
+            .whereKosul("fabrika_kod = :FABRIKA AND aktif = 1")
+            .whereCondition(SqlCondition.parse("fabrika_kod = :FABRIKA AND aktif = 1"))
+            .columns(List.of(
+                    column("stok_id", ColumnType.PK, 0, null),
+                    column("stok_ad", ColumnType.STR, 1, "LIKE"),
+                    column("depo_kod", ColumnType.LONG, 2, "IN"),
+                    ScreenColumn.builder().kolonAd("durum").dbKolon("durum").tipi(ColumnType.COMBO)
+                            .panel(1).ozellikPanel1("OR").ozellikPanel2("=").zorunlu(true).build()))
+            .build();
+
+    private static final ScreenDefinition FACTORY_SCREEN = ScreenDefinition.builder()
+            .ekranKod("FSTOK")
+            .active(true)
+            .tables(List.of(FACTORY_TABLE))
+            .grants(List.of())
+            .version("v1")
+            .build();
+
+    static final ScreenDefinition SCREEN = ScreenDefinition.builder()
+            .ekranKod("STOK")
+            .active(true)
+            .tables(List.of(TABLE))
+            .grants(List.of())
+            .version("v1")
+            .build();
+
+    static List<String> kinds(QueryTemplate template) {
+        return template.getBinds().stream().map(bind -> bind.kind().name() + bind.position()).toList();
+    }
+
+    static ScreenQueryCompiler compiler(SqlDialect dialect) {
+        ScreenEngineProperties properties = new ScreenEngineProperties();
+        properties.getSql().setDialect(dialect.name());
+        properties.getSql().setEnableDebugQuery(false);
+        return new ScreenQueryCompiler(properties, new StaticListableBeanFactory().getBeanProvider(SqlGenerator.class));
+    }
+
+    static ScreenColumn column(String dbKolon, ColumnType tipi, int panel, String operator) {
+        return ScreenColumn.builder()
+                .kolonAd(dbKolon)
+                .dbKolon(dbKolon)
+                .tipi(tipi)
+                .panel(panel)
+                .ozellikPanel2(operator)
+                .zorunlu(true)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.screenengine.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for resolving :NAME placeholders of metadata conditions.
+ */
+class SqlConditionTest {
+
+    @Test
+    void turnsPlaceholdersIntoPositionalBinds() {
+        SqlCondition condition = SqlCondition.parse("fabrika_kod = :FABRIKA AND kullanici = :kullanici");
+
+        assertThat(condition.sql()).isEqualTo("fabrika_kod = ? AND kullanici = ?");
+        assertThat(condition.parameters()).containsExactly(SystemParameter.FACTORY, SystemParameter.USER);
+    }
+
+    @Test
+    void bindsRepeatedPlaceholdersEachTime() {
+        SqlCondition condition = SqlCondition.parse("(a = :FACTORY OR b = :FACTORY)");
+
+        assertThat(condition.sql()).isEqualTo("(a = ? OR b = ?)");
+        assertThat(condition.parameters()).containsExactly(SystemParameter.FACTORY, SystemParameter.FACTORY);
+    }
+
+    @Test
+    void leavesQuotedLiteralsAndCastsAlone() {
+        SqlCondition condition = SqlCondition.parse("durum = ':FACTORY' AND tarih::date = :BIRIMNO");
+
+        assertThat(condition.sql()).isEqualTo("durum = ':FACTORY' AND tarih::date = ?");
+        assertThat(condition.parameters()).containsExactly(SystemParameter.DEPARTMENT_NO);
+    }
+
+    @Test
+    void keepsConditionsWithoutPlaceholders() {
+        SqlCondition condition = SqlCondition.parse("aktif = 1");
+
+        assertThat(condition.sql()).isEqualTo("aktif = 1");
+        assertThat(condition.parameters()).isEmpty();
+    }
+
+    @Test
+    void refusesUnknownPlaceholders() {
+        assertThatThrownBy(() -> SqlCondition.parse("x = :NOPE"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(":NOPE");
+    }
+
+    @Test
+    void treatsBlankConditionsAsAbsent() {
+        assertThat(SqlCondition.parseOptional(null)).isNull();
+        assertThat(SqlCondition.parseOptional("  ")).isNull();
+        assertThat(SqlCondition.parseOptional("a = 1")).isNotNull();
+    }
+}
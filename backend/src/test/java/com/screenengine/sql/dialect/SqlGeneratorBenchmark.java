@@ -0,0 +1,154 @@
+package com.screenengine.sql.dialect;
+
+import com.screenengine.config.ScreenEngineProperties;
+import com.screenengine.model.ColumnType;
+import com.screenengine.model.ScreenColumn;
+import com.screenengine.model.ScreenDefinition;
+import com.screenengine.model.ScreenTable;
+import com.screenengine.sql.QueryTemplate;
+import com.screenengine.sql.ScreenQueryCompiler;
+import com.screenengine.sql.SortKey;
+import com.screenengine.sql.SqlCondition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating SQL in each dialect: the generator primitives, building a
+ * paged screen template from scratch, and fetching it from the template cache.
+ * Run with the main method from the test classpath, e.g. from the IDE.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlGeneratorBenchmark {
+
+    private static final String[] KEYS = {"durum", "stok_ad", "stok_id"};
+    private static final boolean[] MIXED = {true, false, false};
+    private static final boolean[] ASCENDING = {false, false, false};
+    private static final List<String> UPSERT_KEY = List.of("stok_id");
+    private static final List<String> UPSERT_COLUMNS = List.of("stok_id", "stok_ad", "depo_kod", "miktar", "durum");
+    private static final Map<String, String> FILTERS = Map.of("stok_ad", "VIDA%", "depo_kod", "10,20,30", "durum", "A");
+
+    @Param({"POSTGRESQL", "ORACLE", "MYSQL", "SQLSERVER"})
+    private SqlDialect dialect;
+
+    private SqlGenerator generator;
+    private ScreenQueryCompiler compiler;
+    private ScreenTable table;
+    private ScreenDefinition[] versions;
+    private List<SortKey> sort;
+    private int version;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ScreenEngineProperties properties = new ScreenEngineProperties();
+        properties.getSql().setDialect(dialect.name());
+        properties.getSql().setEnableDebugQuery(false);
+        compiler = new ScreenQueryCompiler(properties, new StaticListableBeanFactory().getBeanProvider(SqlGenerator.class));
+        generator = compiler.getGenerator();
+
+        table = ScreenTable.builder()
+                .tabloId(1L)
+                .tabloAd("Stok")
+                .dbTablo("t_stok")
+                .tabloIdKolon("stok_id")
+                .whereKosul("fabrika_kod = :FABRIKA AND aktif = 1")
+                .whereCondition(SqlCondition.parse("fabrika_kod = :FABRIKA AND aktif = 1"))
+                .columns(List.of(
+                        column("stok_id", ColumnType.PK, 0, null),
+                        column("stok_ad", ColumnType.STR, 1, "LIKE"),
+                        column("depo_kod", ColumnType.LONG, 2, "IN"),
+                        column("miktar", ColumnType.NUMBER, 0, null),
+                        column("durum", ColumnType.COMBO, 1, "=")))
+                .build();
+        // A screen whose version changed drops its compiled templates, so alternating rebuilds every time
+        versions = new ScreenDefinition[]{screen("v1"), screen("v2")};
+        sort = compiler.parseSort(table, "-durum,stok_ad");
+    }
+
+    @Benchmark
+    public String rowLimit() {
+        StringBuilder sql = new StringBuilder(64);
+        generator.appendRowLimit(sql);
+        return sql.toString();
+    }
+
+    @Benchmark
+    public int[] keysetPredicate() {
+        return generator.appendKeysetPredicate(new StringBuilder(128), KEYS, ASCENDING);
+    }
+
+    @Benchmark
+    public int[] keysetPredicateMixedDirections() {
+        return generator.appendKeysetPredicate(new StringBuilder(128), KEYS, MIXED);
+    }
+
+    @Benchmark
+    public String inList() {
+        StringBuilder sql = new StringBuilder(64);
+        generator.appendInList(sql, "depo_kod", generator.supportsArrayBinding() ? 0 : 8);
+        return sql.toString();
+    }
+
+    @Benchmark
+    public String upsert() {
+        return generator.upsert("t_stok", UPSERT_KEY, UPSERT_COLUMNS);
+    }
+
+    @Benchmark
+    public QueryTemplate compileTemplate() {
+        version ^= 1;
+        return compiler.compile(versions[version], table, FILTERS, sort, true, true);
+    }
+
+    @Benchmark
+    public QueryTemplate cachedTemplate() {
+        return compiler.compile(versions[0], table, FILTERS, sort, true, true);
+    }
+
+    private ScreenDefinition screen(String version) {
+        return ScreenDefinition.builder()
+                .ekranKod("STOK")
+                .active(true)
+                .tables(List.of(table))
+                .grants(List.of())
+                .version(version)
+                .build();
+    }
+
+    private static ScreenColumn column(String dbKolon, ColumnType tipi, int panel, String operator) {
+        return ScreenColumn.builder()
+                .kolonAd(dbKolon)
+                .dbKolon(dbKolon)
+                .tipi(tipi)
+                .panel(panel)
+                .ozellikPanel2(operator)
+                .zorunlu(true)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SqlGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,117 @@
+package com.screenengine.sql.dialect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Golden SQL of the dialect generators.
+ */
+class SqlGeneratorTest {
+
+    private static final String[] KEYS = {"a", "b", "id"};
+    private static final boolean[] ASCENDING = {false, false, false};
+    private static final boolean[] MIXED = {true, false, false};
+    private static final String NESTED_KEYSET = "a > ? OR (a = ? AND (b > ? OR (b = ? AND (id > ?))))";
+
+    @Test
+    void limitsRowsInEachDialect() {
+        assertThat(rowLimit(SqlDialect.POSTGRESQL)).isEqualTo(" LIMIT ?");
+        assertThat(rowLimit(SqlDialect.ORACLE)).isEqualTo(" FETCH FIRST ? ROWS ONLY");
+        assertThat(rowLimit(SqlDialect.MYSQL)).isEqualTo(" LIMIT ?");
+        assertThat(rowLimit(SqlDialect.SQLSERVER)).isEqualTo(" OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY");
+    }
+
+    @Test
+    void comparesRowValuesOnPostgresqlWhenDirectionsAgree() {
+        StringBuilder sql = new StringBuilder();
+
+        int[] keys = SqlDialect.POSTGRESQL.generator().appendKeysetPredicate(sql, KEYS, ASCENDING);
+
+        assertThat(sql).hasToString("(a, b, id) > (?, ?, ?)");
+        assertThat(keys).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void nestsKeysetPredicateOnOtherDialects() {
+        for (SqlDialect dialect : List.of(SqlDialect.ORACLE, SqlDialect.MYSQL, SqlDialect.SQLSERVER)) {
+            StringBuilder sql = new StringBuilder();
+
+            int[] keys = dialect.generator().appendKeysetPredicate(sql, KEYS, ASCENDING);
+
+            assertThat(sql).hasToString(NESTED_KEYSET);
+            assertThat(keys).containsExactly(0, 0, 1, 1, 2);
+        }
+    }
+
+    @Test
+    void nestsKeysetPredicateForMixedDirections() {
+        StringBuilder sql = new StringBuilder();
+
+        int[] keys = SqlDialect.POSTGRESQL.generator().appendKeysetPredicate(sql, KEYS, MIXED);
+
+        assertThat(sql).hasToString("a < ? OR (a = ? AND (b > ? OR (b = ? AND (id > ?))))");
+        assertThat(keys).containsExactly(0, 0, 1, 1, 2);
+    }
+
+    @Test
+    void bindsInListsAsArrayOnlyOnPostgresql() {
+        assertThat(SqlDialect.POSTGRESQL.generator().supportsArrayBinding()).isTrue();
+        assertThat(inList(SqlDialect.POSTGRESQL, 0)).isEqualTo("kod = ANY(?)");
+        assertThat(inList(SqlDialect.POSTGRESQL, 2)).isEqualTo("kod IN (?, ?)");
+
+        for (SqlDialect dialect : List.of(SqlDialect.ORACLE, SqlDialect.MYSQL, SqlDialect.SQLSERVER)) {
+            assertThat(dialect.generator().supportsArrayBinding()).isFalse();
+            assertThat(inList(dialect, 4)).isEqualTo("kod IN (?, ?, ?, ?)");
+        }
+    }
+
+    @Test
+    void upsertsInEachDialect() {
+        List<String> key = List.of("stok_id");
+        List<String> columns = List.of("stok_id", "stok_ad", "miktar");
+
+        assertThat(SqlDialect.POSTGRESQL.generator().upsert("t_stok", key, columns)).isEqualTo(
+                "INSERT INTO t_stok (stok_id, stok_ad, miktar) VALUES (?, ?, ?) ON CONFLICT (stok_id)"
+                        + " DO UPDATE SET stok_ad = EXCLUDED.stok_ad, miktar = EXCLUDED.miktar");
+        assertThat(SqlDialect.ORACLE.generator().upsert("t_stok", key, columns)).isEqualTo(
+                "MERGE INTO t_stok d USING (SELECT ? stok_id, ? stok_ad, ? miktar FROM dual) s ON (d.stok_id = s.stok_id)"
+                        + " WHEN MATCHED THEN UPDATE SET d.stok_ad = s.stok_ad, d.miktar = s.miktar"
+                        + " WHEN NOT MATCHED THEN INSERT (stok_id, stok_ad, miktar) VALUES (s.stok_id, s.stok_ad, s.miktar)");
+        assertThat(SqlDialect.MYSQL.generator().upsert("t_stok", key, columns)).isEqualTo(
+                "INSERT INTO t_stok (stok_id, stok_ad, miktar) VALUES (?, ?, ?) AS s"
+                        + " ON DUPLICATE KEY UPDATE stok_ad = s.stok_ad, miktar = s.miktar");
+        assertThat(SqlDialect.SQLSERVER.generator().upsert("t_stok", key, columns)).isEqualTo(
+                "MERGE INTO t_stok WITH (HOLDLOCK) AS d USING (VALUES (?, ?, ?)) AS s (stok_id, stok_ad, miktar)"
+                        + " ON (d.stok_id = s.stok_id)"
+                        + " WHEN MATCHED THEN UPDATE SET d.stok_ad = s.stok_ad, d.miktar = s.miktar"
+                        + " WHEN NOT MATCHED THEN INSERT (stok_id, stok_ad, miktar) VALUES (s.stok_id, s.stok_ad, s.miktar);");
+    }
+
+    @Test
+    void upsertOfKeyOnlyRowsInsertsOrKeepsTheRow() {
+        List<String> keys = List.of("a", "b");
+
+        assertThat(SqlDialect.POSTGRESQL.generator().upsert("t_link", keys, keys))
+                .isEqualTo("INSERT INTO t_link (a, b) VALUES (?, ?) ON CONFLICT (a, b) DO NOTHING");
+        assertThat(SqlDialect.ORACLE.generator().upsert("t_link", keys, keys))
+                .isEqualTo("MERGE INTO t_link d USING (SELECT ? a, ? b FROM dual) s ON (d.a = s.a AND d.b = s.b)"
+                        + " WHEN NOT MATCHED THEN INSERT (a, b) VALUES (s.a, s.b)");
+        assertThat(SqlDialect.MYSQL.generator().upsert("t_link", keys, keys))
+                .isEqualTo("INSERT INTO t_link (a, b) VALUES (?, ?) AS s ON DUPLICATE KEY UPDATE a = s.a");
+    }
+
+    private static String rowLimit(SqlDialect dialect) {
+        StringBuilder sql = new StringBuilder();
+        dialect.generator().appendRowLimit(sql);
+        return sql.toString();
+    }
+
+    private static String inList(SqlDialect dialect, int placeholders) {
+        StringBuilder sql = new StringBuilder();
+        dialect.generator().appendInList(sql, "kod", placeholders);
+        return sql.toString();
+    }
+}
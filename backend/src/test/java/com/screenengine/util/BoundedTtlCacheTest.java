@@ -0,0 +1,62 @@
+package com.screenengine.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the bounded TTL cache.
+ */
+class BoundedTtlCacheTest {
+
+    @Test
+    void returnsCachedValueUntilInvalidated() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>("test", 10, Duration.ofMinutes(1));
+
+        cache.put("a", 1);
+
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.invalidate("a")).isEqualTo(1);
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void dropsEntriesPastTheirExpiry() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>("test", 10, Duration.ofMinutes(1));
+
+        cache.put("expired", 1, System.currentTimeMillis() - 1);
+
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>("test", 2, Duration.ofMinutes(1), 1);
+
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.get(1);
+        cache.put(3, 3);
+
+        assertThat(cache.get(1)).isEqualTo(1);
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isEqualTo(3);
+    }
+
+    @Test
+    void recordsHitsAndMisses() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>("test", 10, Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get("a", key -> 1);
+        cache.get("a");
+
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+}
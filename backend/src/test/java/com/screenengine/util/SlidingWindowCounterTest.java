@@ -0,0 +1,102 @@
+package com.screenengine.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the sliding window counter.
+ */
+class SlidingWindowCounterTest {
+
+    @Test
+    void countsEventsWithinTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10_000, 10);
+
+        counter.increment(1_000);
+        counter.increment(2_500);
+
+        assertThat(counter.increment(9_999)).isEqualTo(3);
+    }
+
+    @Test
+    void forgetsEventsOnceTheyLeaveTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10_000, 10);
+
+        counter.increment(1_000);
+        counter.increment(5_000);
+
+        assertThat(counter.sum(11_000)).isEqualTo(1);
+        assertThat(counter.sum(15_000)).isZero();
+    }
+
+    @Test
+    void reusesBucketsAfterWrappingAround() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10_000, 10);
+
+        counter.increment(1_000);
+
+        assertThat(counter.increment(11_000)).isEqualTo(1);
+    }
+
+    @Test
+    void reportsTimeUntilOldestEventDecays() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10_000, 10);
+
+        counter.increment(1_500);
+        counter.increment(4_000);
+
+        assertThat(counter.millisUntilDecay(5_000)).isEqualTo(6_000);
+        assertThat(new SlidingWindowCounter(10_000, 10).millisUntilDecay(5_000)).isZero();
+    }
+
+    @Test
+    void losesNoEventsWhenThreadsMoveABucketToANewEpoch() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        SlidingWindowCounter counter = new SlidingWindowCounter(10_000, 10);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 1; round <= 500; round++) {
+                // Every round writes the same bucket in the next lap of the ring
+                long now = 1_000 + round * 10_000L;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < perThread; i++) {
+                            counter.increment(now);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                assertThat(counter.sum(now)).isEqualTo(threads * perThread);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void countsLateCallersIntoTheNewerBucket() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10_000, 10);
+
+        counter.increment(11_000);
+
+        assertThat(counter.increment(1_000)).isEqualTo(2);
+        assertThat(counter.sum(11_000)).isEqualTo(2);
+    }
+}
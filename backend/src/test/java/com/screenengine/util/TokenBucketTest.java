@@ -0,0 +1,44 @@
+package com.screenengine.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the token bucket.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(3, 1.0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refillsLazilyOverTime() {
+        TokenBucket bucket = new TokenBucket(1, 2.0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 4)).isPositive();
+        assertThat(bucket.tryAcquire(SECOND / 2)).isZero();
+    }
+
+    @Test
+    void becomesIdleOnceFull() {
+        TokenBucket bucket = new TokenBucket(2, 1.0);
+
+        bucket.tryAcquire(10 * SECOND);
+
+        assertThat(bucket.isIdleSince(10 * SECOND)).isFalse();
+        assertThat(bucket.isIdleSince(12 * SECOND)).isTrue();
+    }
+}
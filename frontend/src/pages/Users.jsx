@@ -2,24 +2,50 @@ import { useState, useEffect } from 'react';
 import Layout from '../components/Layout';
 import { userAPI } from '../services/api';
 
+const PAGE_SIZE = 50;
+
 const Users = () => {
   const [users, setUsers] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState(null);
   const [searchTerm, setSearchTerm] = useState('');
+  const [query, setQuery] = useState('');
   const [filterRole, setFilterRole] = useState('ALL');
+  const [filterStatus, setFilterStatus] = useState('ALL');
+  const [counts, setCounts] = useState({ total: null, active: null, inactive: null });
+
+  // Send the search to the server once typing pauses
+  useEffect(() => {
+    const timer = setTimeout(() => setQuery(searchTerm.trim()), 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
 
-  // Fetch users on component mount
+  // Filters are applied by the server; changing one restarts from the first page
   useEffect(() => {
     fetchUsers();
+  }, [query, filterRole, filterStatus]);
+
+  useEffect(() => {
+    fetchCounts();
   }, []);
 
-  const fetchUsers = async () => {
+  const filterParams = () => ({
+    q: query || undefined,
+    role: filterRole === 'ALL' ? undefined : filterRole,
+    status: filterStatus === 'ALL' ? undefined : filterStatus,
+  });
+
+  const fetchUsers = async (cursor = null) => {
     try {
-      setLoading(true);
-      const response = await userAPI.getAllUsers();
+      // Only the first load replaces the page, so the filter inputs keep focus while refetching
+      if (cursor) setLoadingMore(true);
+      const response = await userAPI.getAllUsers({ ...filterParams(), size: PAGE_SIZE, cursor: cursor || undefined });
       if (response.data.success) {
-        setUsers(response.data.data);
+        setUsers(cursor ? [...users, ...response.data.data] : response.data.data);
+        setNextCursor(response.data.pagination?.hasMore ? response.data.pagination.nextCursor : null);
+        setError(null);
       } else {
         setError(response.data.message || 'Failed to fetch users');
       }
@@ -28,22 +54,20 @@ const Users = () => {
       console.error('Error fetching users:', err);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
-  const filteredUsers = users.filter(user => {
-    const matchesSearch = user.username.toLowerCase().includes(searchTerm.toLowerCase()) ||
-                         user.fullName.toLowerCase().includes(searchTerm.toLowerCase()) ||
-                         user.email.toLowerCase().includes(searchTerm.toLowerCase());
-
-    // Extract primary role from roles array
-    const primaryRole = user.roles && user.roles.length > 0
-      ? user.roles[0].replace('ROLE_', '')
-      : 'USER';
-
-    const matchesRole = filterRole === 'ALL' || primaryRole === filterRole;
-    return matchesSearch && matchesRole;
-  });
+  // Totals come from the server, since only the loaded pages are known here
+  const fetchCounts = async () => {
+    const total = (params) => userAPI.getAllUsers({ ...params, size: 1 })
+      .then(response => response.data.pagination?.total ?? null)
+      .catch(() => null);
+    const [all, active, inactive] = await Promise.all([
+      total({}), total({ status: 'ACTIVE' }), total({ status: 'INACTIVE' }),
+    ]);
+    setCounts({ total: all, active, inactive });
+  };
 
   const toggleUserStatus = async (userId) => {
     try {
@@ -53,6 +77,7 @@ const Users = () => {
         setUsers(users.map(user =>
           user.userId === userId ? response.data.data : user
         ));
+        fetchCounts();
       } else {
         alert(response.data.message || 'Failed to toggle user status');
       }
@@ -70,6 +95,7 @@ const Users = () => {
       if (response.data.success) {
         // Refresh user list
         fetchUsers();
+        fetchCounts();
       } else {
         alert(response.data.message || 'Failed to delete user');
       }
@@ -109,7 +135,7 @@ const Users = () => {
         <div className="flex gap-4 mb-6">
           <input
             type="text"
-            placeholder="Search users..."
+            placeholder="Search by username or email prefix..."
             value={searchTerm}
             onChange={(e) => setSearchTerm(e.target.value)}
             className="flex-1 px-4 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500 focus:border-transparent outline-none"
@@ -123,6 +149,15 @@ const Users = () => {
             <option value="ADMIN">Admin</option>
             <option value="USER">User</option>
           </select>
+          <select
+            value={filterStatus}
+            onChange={(e) => setFilterStatus(e.target.value)}
+            className="px-4 py-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-primary-500 focus:border-transparent outline-none"
+          >
+            <option value="ALL">All Statuses</option>
+            <option value="ACTIVE">Active</option>
+            <option value="INACTIVE">Inactive</option>
+          </select>
         </div>
 
         <div className="bg-white rounded-xl shadow-md overflow-hidden">
@@ -138,7 +173,7 @@ const Users = () => {
               </tr>
             </thead>
             <tbody className="divide-y divide-gray-200">
-              {filteredUsers.map(user => {
+              {users.map(user => {
                 const primaryRole = user.roles && user.roles.length > 0
                   ? user.roles[0].replace('ROLE_', '')
                   : 'USER';
@@ -187,17 +222,30 @@ const Users = () => {
             </tbody>
           </table>
 
-          {filteredUsers.length === 0 && (
+          {users.length === 0 && (
             <div className="py-12 text-center text-gray-500">
               No users found matching your criteria
             </div>
           )}
+
+          {nextCursor && (
+            <div className="py-4 text-center border-t border-gray-200">
+              <button
+                onClick={() => fetchUsers(nextCursor)}
+                disabled={loadingMore}
+                className="px-4 py-2 text-sm font-medium text-primary-700 hover:bg-gray-50 rounded-lg disabled:opacity-50"
+              >
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </button>
+            </div>
+          )}
         </div>
 
         <div className="mt-6 bg-white rounded-xl shadow-md p-6 flex gap-8">
-          <div><strong className="text-gray-800">Total Users:</strong> <span className="text-gray-600">{users.length}</span></div>
-          <div><strong className="text-gray-800">Active:</strong> <span className="text-gray-600">{users.filter(u => u.status === 'ACTIVE').length}</span></div>
-          <div><strong className="text-gray-800">Inactive:</strong> <span className="text-gray-600">{users.filter(u => u.status === 'INACTIVE').length}</span></div>
+          <div><strong className="text-gray-800">Total Users:</strong> <span className="text-gray-600">{counts.total ?? '-'}</span></div>
+          <div><strong className="text-gray-800">Active:</strong> <span className="text-gray-600">{counts.active ?? '-'}</span></div>
+          <div><strong className="text-gray-800">Inactive:</strong> <span className="text-gray-600">{counts.inactive ?? '-'}</span></div>
+          <div><strong className="text-gray-800">Shown:</strong> <span className="text-gray-600">{users.length}</span></div>
         </div>
       </div>
     </Layout>
@@ -50,7 +50,8 @@ export const userAPI = {
   updateProfile: (data) => api.put('/users/profile', data),
 
   // Admin user management
-  getAllUsers: () => api.get('/v1/users'),
+  // params: q, status, role, size, cursor; the response carries pagination.nextCursor
+  getAllUsers: (params) => api.get('/v1/users', { params }),
   getUserById: (userId) => api.get(`/v1/users/${userId}`),
   updateUser: (userId, data) => api.put(`/v1/users/${userId}`, data),
   deleteUser: (userId) => api.delete(`/v1/users/${userId}`),